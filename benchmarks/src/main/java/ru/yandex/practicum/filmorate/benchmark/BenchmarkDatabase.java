@@ -0,0 +1,168 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import ru.yandex.practicum.filmorate.FilmorateApplication;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.repository.film.FilmRepositoryInterface;
+import ru.yandex.practicum.filmorate.repository.user.UserRepositoryInterface;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+public final class BenchmarkDatabase implements AutoCloseable {
+    private static final int CHUNK_SIZE = 5000;
+    private static final String INSERT_LIKE = """
+            MERGE INTO likes (film_id, user_id) KEY (film_id, user_id)
+            VALUES (:filmId, :userId)
+            """;
+    private final ConfigurableApplicationContext context;
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    private BenchmarkDatabase(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    public static BenchmarkDatabase start(String... extraArgs) {
+        return start(WebApplicationType.NONE, extraArgs);
+    }
+
+    public static BenchmarkDatabase startWeb(String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of("--server.port=0"));
+        args.addAll(List.of(extraArgs));
+        return start(WebApplicationType.SERVLET, args.toArray(String[]::new));
+    }
+
+    private static BenchmarkDatabase start(WebApplicationType webApplicationType, String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;MODE=LEGACY",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.zalando.logbook=OFF"));
+        args.addAll(List.of(extraArgs));
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(FilmorateApplication.class)
+                .web(webApplicationType)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .run(args.toArray(String[]::new));
+        return new BenchmarkDatabase(context);
+    }
+
+    public int port() {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public <T> T bean(String name, Class<T> type) {
+        return context.getBean(name, type);
+    }
+
+    public void seedFilms(int count) {
+        seedFilms(count, () -> {
+            List<Genre> genres = new ArrayList<>();
+            for (int g = random.nextInt(4); g > 0; g--) {
+                genres.add(new Genre(1 + random.nextInt(6), null));
+            }
+            return genres;
+        });
+    }
+
+    public void seedFilms(int count, int genresPerFilm) {
+        seedFilms(count, () -> {
+            List<Genre> genres = new ArrayList<>(genresPerFilm);
+            for (int g = 1; g <= genresPerFilm; g++) {
+                genres.add(new Genre(g, null));
+            }
+            return genres;
+        });
+    }
+
+    private void seedFilms(int count, Supplier<List<Genre>> genresSupplier) {
+        FilmRepositoryInterface films = bean("jdbcFilmRepository", FilmRepositoryInterface.class);
+        List<Film> chunk = new ArrayList<>(CHUNK_SIZE);
+        for (int i = 0; i < count; i++) {
+            List<Genre> genres = genresSupplier.get();
+            chunk.add(Film.builder()
+                    .name("Film " + i)
+                    .description("Benchmark film " + i)
+                    .releaseDate(LocalDate.of(1950 + random.nextInt(70), 1 + random.nextInt(12), 1))
+                    .duration(60 + random.nextInt(120))
+                    .mpa(new Mpa(1 + random.nextInt(5), null))
+                    .genres(genres)
+                    .build());
+            if (chunk.size() == CHUNK_SIZE) {
+                films.importFilms(chunk);
+                chunk = new ArrayList<>(CHUNK_SIZE);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            films.importFilms(chunk);
+        }
+    }
+
+    public void seedUsers(int count) {
+        UserRepositoryInterface users = bean(UserRepositoryInterface.class);
+        List<User> chunk = new ArrayList<>(CHUNK_SIZE);
+        for (int i = 0; i < count; i++) {
+            chunk.add(User.builder()
+                    .email("user" + i + "@bench.io")
+                    .login("user" + i)
+                    .name("User " + i)
+                    .birthday(LocalDate.of(1970 + random.nextInt(40), 1 + random.nextInt(12), 1))
+                    .build());
+            if (chunk.size() == CHUNK_SIZE) {
+                users.importUsers(chunk);
+                chunk = new ArrayList<>(CHUNK_SIZE);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            users.importUsers(chunk);
+        }
+    }
+
+    public void seedLikes(int count, int films, int users) {
+        NamedParameterJdbcOperations jdbc = bean(NamedParameterJdbcOperations.class);
+        List<SqlParameterSource> chunk = new ArrayList<>(CHUNK_SIZE);
+        for (int i = 0; i < count; i++) {
+            chunk.add(new MapSqlParameterSource()
+                    .addValue("filmId", skewedId(films))
+                    .addValue("userId", 1L + random.nextInt(users)));
+            if (chunk.size() == CHUNK_SIZE) {
+                jdbc.batchUpdate(INSERT_LIKE, chunk.toArray(SqlParameterSource[]::new));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            jdbc.batchUpdate(INSERT_LIKE, chunk.toArray(SqlParameterSource[]::new));
+        }
+        bean("jdbcFilmRepository", FilmRepositoryInterface.class).rebuildLikeCounters();
+    }
+
+    public long randomFilmId(int films) {
+        return 1L + random.nextInt(films);
+    }
+
+    private long skewedId(int max) {
+        return 1L + (long) (max * Math.pow(random.nextDouble(), 3));
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
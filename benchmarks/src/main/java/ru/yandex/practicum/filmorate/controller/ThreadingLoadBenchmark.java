@@ -0,0 +1,114 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.benchmark.BenchmarkDatabase;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-Djdk.httpclient.keepalive.timeout=60"})
+public class ThreadingLoadBenchmark {
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    @Param({"1000", "10000"})
+    private int clients;
+
+    @Param({"10000"})
+    private int users;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+    private final AtomicLong failures = new AtomicLong();
+    private BenchmarkDatabase database;
+    private HttpClient client;
+    private ExecutorService clientThreads;
+    private List<URI> uris;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.startWeb(
+                "--spring.threads.virtual.enabled=" + "virtual".equals(threads),
+                "--server.tomcat.max-connections=" + (clients + 1000),
+                "--server.tomcat.accept-count=" + clients,
+                "--filmorate.datasource.acquire-timeout=5m",
+                "--management.endpoints.web.exposure.include=");
+        database.seedUsers(users);
+        clientThreads = Executors.newVirtualThreadPerTaskExecutor();
+        client = HttpClient.newBuilder()
+                .executor(clientThreads)
+                .connectTimeout(Duration.ofMinutes(1))
+                .build();
+    }
+
+    @Setup(Level.Invocation)
+    public void pickUsers() {
+        String base = "http://localhost:" + database.port() + "/users/";
+        uris = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            uris.add(URI.create(base + (1 + random.nextInt(users))));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%n%s threads, %d clients: %d failed requests%n", threads, clients, failures.get());
+        clientThreads.close();
+        database.close();
+    }
+
+    @Benchmark
+    public int concurrentUserReads() throws InterruptedException {
+        List<Future<Integer>> responses = new ArrayList<>(clients);
+        for (URI uri : uris) {
+            responses.add(clientThreads.submit(() -> get(uri)));
+        }
+        int ok = 0;
+        for (Future<Integer> response : responses) {
+            try {
+                if (response.get() == 200) {
+                    ok++;
+                } else {
+                    failures.incrementAndGet();
+                }
+            } catch (ExecutionException e) {
+                failures.incrementAndGet();
+            }
+        }
+        return ok;
+    }
+
+    private int get(URI uri) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,68 @@
+package ru.yandex.practicum.filmorate.mapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.BeanUtils;
+import ru.yandex.practicum.filmorate.dto.FilmDto;
+import ru.yandex.practicum.filmorate.dto.UserDto;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+    private FilmMapper filmMapper;
+    private UserMapper userMapper;
+    private Film film;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        filmMapper = BeanUtils.instantiateClass(FilmMapper.class);
+        userMapper = BeanUtils.instantiateClass(UserMapper.class);
+        film = Film.builder()
+                .id(1L)
+                .name("Film")
+                .description("Benchmark film")
+                .releaseDate(LocalDate.of(2000, 1, 1))
+                .duration(120)
+                .mpa(new Mpa(3, "PG-13"))
+                .genres(List.of(new Genre(1, "Комедия"), new Genre(2, "Драма")))
+                .build();
+        user = User.builder()
+                .id(1L)
+                .email("user@bench.io")
+                .login("user")
+                .name("User")
+                .birthday(LocalDate.of(1990, 1, 1))
+                .build();
+    }
+
+    @Benchmark
+    public FilmDto filmToDto() {
+        return filmMapper.toDto(film);
+    }
+
+    @Benchmark
+    public UserDto userToDto() {
+        return userMapper.mapToUserDto(user);
+    }
+}
@@ -0,0 +1,82 @@
+package ru.yandex.practicum.filmorate.repository.film;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
+import ru.yandex.practicum.filmorate.benchmark.BenchmarkDatabase;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.repository.reference.ReferenceDataCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilmHydrationBenchmark {
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"0", "1", "3", "6"})
+    private int genresPerFilm;
+
+    @Param({"JOIN", "TWO_PHASE"})
+    private FilmHydration hydration;
+
+    @Param({"20000"})
+    private int films;
+
+    @Param({"50000"})
+    private int likes;
+
+    private BenchmarkDatabase database;
+    private FilmRepositoryInterface repository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.start();
+        database.seedFilms(films, genresPerFilm);
+        database.seedUsers(1000);
+        database.seedLikes(likes, films, 1000);
+        repository = new JdbcFilmRepository(database.bean(NamedParameterJdbcOperations.class),
+                database.bean(ReferenceDataCache.class), hydration);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public List<Film> page() {
+        return repository.getFilmsPage(database.randomFilmId(films - PAGE_SIZE), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Film> byIds() {
+        List<Long> ids = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            ids.add(database.randomFilmId(films));
+        }
+        return repository.getFilmsByIds(ids);
+    }
+
+    @Benchmark
+    public Film byId() {
+        return repository.getFilmById(database.randomFilmId(films)).orElseThrow();
+    }
+}
@@ -0,0 +1,122 @@
+package ru.yandex.practicum.filmorate.repository.film;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
+import ru.yandex.practicum.filmorate.benchmark.BenchmarkDatabase;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.repository.mappers.FilmRowMapper;
+import ru.yandex.practicum.filmorate.repository.reference.ReferenceDataCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilmReadBenchmark {
+    private static final int PAGE_SIZE = 100;
+    private static final String FILMS_PAGE = """
+            SELECT
+                f.film_id, f.name, f.description, f.release_date, f.duration, f.mpa_id,
+                fg.genre_id
+            FROM (
+                SELECT film_id, name, description, release_date, duration, mpa_id
+                FROM films
+                WHERE film_id > :afterId
+                ORDER BY film_id
+                LIMIT :limit
+            ) f
+            LEFT JOIN film_genres fg ON f.film_id = fg.film_id
+            ORDER BY f.film_id, fg.genre_id
+            """;
+    private static final String FILMS_PAGE_WITH_NAMES = """
+            SELECT
+                f.film_id, f.name, f.description, f.release_date, f.duration, f.mpa_id,
+                m.name AS mpa_name, fg.genre_id, g.name AS genre_name
+            FROM (
+                SELECT film_id, name, description, release_date, duration, mpa_id
+                FROM films
+                WHERE film_id > :afterId
+                ORDER BY film_id
+                LIMIT :limit
+            ) f
+            LEFT JOIN mpa m ON f.mpa_id = m.mpa_id
+            LEFT JOIN film_genres fg ON f.film_id = fg.film_id
+            LEFT JOIN genres g ON fg.genre_id = g.genre_id
+            ORDER BY f.film_id, fg.genre_id
+            """;
+
+    @Param({"10000", "100000", "1000000"})
+    private int films;
+
+    @Param({"100000"})
+    private int likes;
+
+    @Param({"10000"})
+    private int users;
+
+    private BenchmarkDatabase database;
+    private NamedParameterJdbcOperations jdbc;
+    private FilmRepositoryInterface repository;
+    private JdbcFilmRepository.FilmResultSetExtractor extractor;
+    private FilmRowMapper rowMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.start();
+        database.seedFilms(films);
+        database.seedUsers(users);
+        database.seedLikes(likes, films, users);
+        jdbc = database.bean(NamedParameterJdbcOperations.class);
+        repository = database.bean("jdbcFilmRepository", FilmRepositoryInterface.class);
+        extractor = new JdbcFilmRepository.FilmResultSetExtractor(database.bean(ReferenceDataCache.class));
+        rowMapper = new FilmRowMapper();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public List<Film> resultSetExtractorPage() {
+        return jdbc.query(FILMS_PAGE, pageParams(), extractor);
+    }
+
+    @Benchmark
+    public List<Film> rowMapperPage() {
+        return jdbc.query(FILMS_PAGE_WITH_NAMES, pageParams(), rowMapper);
+    }
+
+    @Benchmark
+    public List<Film> filmsByIds() {
+        List<Long> ids = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            ids.add(database.randomFilmId(films));
+        }
+        return repository.getFilmsByIds(ids);
+    }
+
+    private MapSqlParameterSource pageParams() {
+        return new MapSqlParameterSource()
+                .addValue("afterId", database.randomFilmId(Math.max(films - PAGE_SIZE, 1)))
+                .addValue("limit", PAGE_SIZE);
+    }
+}
@@ -0,0 +1,148 @@
+package ru.yandex.practicum.filmorate.service.recommendation;
+
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.model.Genre;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FilmSimilarityBenchmark {
+    private static final int LIMIT = 10;
+    private static final int RECALL_SAMPLE = 200;
+
+    @Param({"10000", "50000"})
+    private int films;
+
+    @Param({"20000"})
+    private int users;
+
+    @Param({"500000"})
+    private int likes;
+
+    @Param({"16", "32"})
+    private int bands;
+
+    @Param({"2", "4"})
+    private int rows;
+
+    private LikeMatrix likeMatrix;
+    private FilmSimilarityIndex index;
+    private List<Genre>[] genres;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        likeMatrix = new LikeMatrix(null);
+        index = new FilmSimilarityIndex(null, likeMatrix, bands, rows, 1000);
+        genres = new List[films + 1];
+        for (int filmId = 1; filmId <= films; filmId++) {
+            List<Genre> filmGenres = new ArrayList<>();
+            for (int g = random.nextInt(3); g >= 0; g--) {
+                filmGenres.add(new Genre(1 + random.nextInt(6), null));
+            }
+            genres[filmId] = filmGenres;
+            index.filmChanged(filmId, filmGenres);
+        }
+        int clusters = Math.max(films / 20, 1);
+        for (int i = 0; i < likes; i++) {
+            long userId = 1L + random.nextInt(users);
+            int cluster = (int) (userId % clusters);
+            long filmId = random.nextInt(10) < 8
+                    ? 1L + (cluster * 20L + random.nextInt(20)) % films
+                    : 1L + random.nextInt(films);
+            likeMatrix.likeAdded(filmId, userId);
+            index.likeAdded(filmId, userId);
+        }
+        System.out.printf("%nrecall@%d LSH (%d x %d) vs exact: %.3f%n", LIMIT, bands, rows, recall(random));
+    }
+
+    @Benchmark
+    public long[] lsh() {
+        return index.similar(randomFilm(), LIMIT);
+    }
+
+    @Benchmark
+    public long[] exact() {
+        return exactTop(randomFilm());
+    }
+
+    private double recall(SplittableRandom random) {
+        int found = 0;
+        int expected = 0;
+        for (int i = 0; i < RECALL_SAMPLE; i++) {
+            long filmId = 1L + random.nextInt(films);
+            LongOpenHashSet approximate = new LongOpenHashSet(index.similar(filmId, LIMIT));
+            for (long similar : exactTop(filmId)) {
+                expected++;
+                if (approximate.contains(similar)) {
+                    found++;
+                }
+            }
+        }
+        return expected == 0 ? 1 : (double) found / expected;
+    }
+
+    private long[] exactTop(long filmId) {
+        LongOpenHashSet target = features(filmId);
+        double[] scores = new double[films + 1];
+        for (int candidate = 1; candidate <= films; candidate++) {
+            if (candidate == filmId) {
+                continue;
+            }
+            LongOpenHashSet other = features(candidate);
+            int shared = 0;
+            for (var it = other.iterator(); it.hasNext(); ) {
+                if (target.contains(it.nextLong())) {
+                    shared++;
+                }
+            }
+            int union = target.size() + other.size() - shared;
+            scores[candidate] = union == 0 ? 0 : (double) shared / union;
+        }
+        return IntStream.rangeClosed(1, films)
+                .filter(candidate -> candidate != filmId && scores[candidate] > 0)
+                .boxed()
+                .sorted(Comparator.comparingDouble((Integer candidate) -> scores[candidate]).reversed()
+                        .thenComparingInt(candidate -> candidate))
+                .limit(LIMIT)
+                .mapToLong(Integer::longValue)
+                .toArray();
+    }
+
+    private LongOpenHashSet features(long filmId) {
+        LongOpenHashSet features = new LongOpenHashSet();
+        for (Genre genre : genres[(int) filmId]) {
+            features.add(-1L - genre.getId());
+        }
+        likeMatrix.forEachLiker(filmId, features::add);
+        return features;
+    }
+
+    private long randomFilm() {
+        return 1L + ThreadLocalRandom.current().nextInt(films);
+    }
+}
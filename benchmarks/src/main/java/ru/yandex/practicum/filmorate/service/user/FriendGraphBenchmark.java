@@ -0,0 +1,84 @@
+package ru.yandex.practicum.filmorate.service.user;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FriendGraphBenchmark {
+    @Param({"100000", "1000000"})
+    private int users;
+
+    @Param({"8"})
+    private int edgesPerUser;
+
+    @Param({"1000"})
+    private int maxFanOut;
+
+    private FriendGraph graph;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = new FriendGraph(null, maxFanOut, 6, 100_000);
+        SplittableRandom random = new SplittableRandom(42);
+        LongArrayList endpoints = new LongArrayList();
+        endpoints.add(1L);
+        for (long user = 2; user <= users; user++) {
+            for (int edge = 0; edge < edgesPerUser; edge++) {
+                long target = endpoints.getLong(random.nextInt(endpoints.size()));
+                if (target == user) {
+                    continue;
+                }
+                graph.friendshipAdded(user, target);
+                if (random.nextBoolean()) {
+                    graph.friendshipAdded(target, user);
+                }
+                endpoints.add(target);
+                endpoints.add(user);
+            }
+        }
+    }
+
+    @Benchmark
+    public long[] suggestionsForRandomUser() {
+        return graph.suggestFriends(randomUser(), 10);
+    }
+
+    @Benchmark
+    public long[] suggestionsForHub() {
+        return graph.suggestFriends(1L, 10);
+    }
+
+    @Benchmark
+    public long[] commonFriends() {
+        return graph.commonFriends(randomUser(), randomUser());
+    }
+
+    @Benchmark
+    public long[] shortestPath() {
+        return graph.shortestPath(randomUser(), randomUser());
+    }
+
+    private long randomUser() {
+        return 1L + ThreadLocalRandom.current().nextInt(users);
+    }
+}
@@ -0,0 +1,70 @@
+package ru.yandex.practicum.filmorate.service.validation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.benchmark.BenchmarkDatabase;
+import ru.yandex.practicum.filmorate.repository.user.UserRepositoryInterface;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailCheckBenchmark {
+    @Param({"100000", "1000000"})
+    private int users;
+
+    private BenchmarkDatabase database;
+    private UserRepositoryInterface userRepository;
+    private EmailBloomFilter emailFilter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.start();
+        database.seedUsers(users);
+        userRepository = database.bean(UserRepositoryInterface.class);
+        emailFilter = database.bean(EmailBloomFilter.class);
+        emailFilter.load();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public boolean indexedLookupNewEmail() {
+        return userRepository.existsByEmail(newEmail());
+    }
+
+    @Benchmark
+    public boolean bloomGuardedNewEmail() {
+        String email = newEmail();
+        return emailFilter.mightContain(email) && userRepository.existsByEmail(email);
+    }
+
+    @Benchmark
+    public boolean bloomGuardedExistingEmail() {
+        String email = "user" + ThreadLocalRandom.current().nextInt(users) + "@bench.io";
+        return emailFilter.mightContain(email) && userRepository.existsByEmail(email);
+    }
+
+    private static String newEmail() {
+        return "new" + ThreadLocalRandom.current().nextLong() + "@bench.io";
+    }
+}
@@ -0,0 +1,65 @@
+package ru.yandex.practicum.filmorate.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    public static BeanPostProcessor concurrencyLimitingDataSourcePostProcessor(
+            @Value("${filmorate.datasource.max-concurrency:0}") int maxConcurrency,
+            @Value("${filmorate.datasource.acquire-timeout:30s}") Duration acquireTimeout) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (maxConcurrency > 0 && bean instanceof DataSource dataSource
+                        && !(bean instanceof ConcurrencyLimitingDataSource)) {
+                    return new ConcurrencyLimitingDataSource(dataSource, maxConcurrency, acquireTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "filmorate.datasource.routing.enabled", havingValue = "true")
+    public ReadWriteRoutingDataSource dataSource(
+            DataSourceProperties properties,
+            MeterRegistry registry,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int primaryPoolSize,
+            @Value("${filmorate.datasource.replica.url}") String replicaUrl,
+            @Value("${filmorate.datasource.replica.username:sa}") String replicaUsername,
+            @Value("${filmorate.datasource.replica.password:}") String replicaPassword,
+            @Value("${filmorate.datasource.replica.maximum-pool-size:10}") int replicaPoolSize,
+            @Value("${filmorate.datasource.replica.max-lag:2s}") Duration maxLag) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primary.setPoolName("primary");
+        primary.setMaximumPoolSize(primaryPoolSize);
+        primary.setMetricRegistry(registry);
+
+        HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(replicaUrl)
+                .username(replicaUsername)
+                .password(replicaPassword)
+                .build();
+        replica.setPoolName("replica");
+        replica.setMaximumPoolSize(replicaPoolSize);
+        replica.setMetricRegistry(registry);
+
+        return new ReadWriteRoutingDataSource(primary, replica, maxLag, registry);
+    }
+}
@@ -0,0 +1,31 @@
+package ru.yandex.practicum.filmorate.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.HttpResponse;
+import org.zalando.logbook.Strategy;
+
+import java.io.IOException;
+import java.util.List;
+
+@Configuration
+public class LogbookConfig {
+
+    @Bean
+    public Strategy logbookStrategy() {
+        return new Strategy() {
+            @Override
+            public HttpResponse process(HttpRequest request, HttpResponse response) throws IOException {
+                return isStreaming(request) ? response.withoutBody() : response.withBody();
+            }
+        };
+    }
+
+    private static boolean isStreaming(HttpRequest request) {
+        List<String> accept = request.getHeaders().get("Accept");
+        return accept != null && accept.stream()
+                .anyMatch(value -> value.contains(MediaType.APPLICATION_NDJSON_VALUE));
+    }
+}
@@ -0,0 +1,32 @@
+package ru.yandex.practicum.filmorate.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReadConsistencyFilter extends OncePerRequestFilter {
+    public static final String HEADER = "X-Read-Consistency";
+    public static final String PRIMARY = "primary";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (PRIMARY.equalsIgnoreCase(request.getHeader(HEADER))) {
+            ReadRouting.forcePrimary();
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadRouting.reset();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package ru.yandex.practicum.filmorate.config;
+
+import java.util.function.Supplier;
+
+public final class ReadRouting {
+    private static final ThreadLocal<Boolean> PRIMARY_FORCED = ThreadLocal.withInitial(() -> false);
+
+    private ReadRouting() {
+    }
+
+    public static <T> T onPrimary(Supplier<T> action) {
+        boolean previous = PRIMARY_FORCED.get();
+        PRIMARY_FORCED.set(true);
+        try {
+            return action.get();
+        } finally {
+            PRIMARY_FORCED.set(previous);
+        }
+    }
+
+    public static void forcePrimary() {
+        PRIMARY_FORCED.set(true);
+    }
+
+    public static boolean isPrimaryForced() {
+        return PRIMARY_FORCED.get();
+    }
+
+    public static void reset() {
+        PRIMARY_FORCED.remove();
+    }
+}
@@ -0,0 +1,91 @@
+package ru.yandex.practicum.filmorate.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+public class ReadWriteRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+    private final HikariDataSource primary;
+    private final HikariDataSource replica;
+    private final long maxLagMillis;
+    private final Map<Target, Counter> routed;
+    private volatile long replicaSnapshotAt = Long.MIN_VALUE;
+
+    public ReadWriteRoutingDataSource(HikariDataSource primary, HikariDataSource replica, Duration maxLag,
+                                      MeterRegistry registry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLagMillis = maxLag.toMillis();
+        Router router = new Router();
+        router.setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        router.setDefaultTargetDataSource(primary);
+        router.afterPropertiesSet();
+        setTargetDataSource(router);
+        this.routed = Map.of(
+                Target.PRIMARY, routedCounter(registry, Target.PRIMARY),
+                Target.REPLICA, routedCounter(registry, Target.REPLICA));
+        Gauge.builder("filmorate.datasource.replica.lag", this, ReadWriteRoutingDataSource::getReplicaLagMillis)
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public DataSource getReplica() {
+        return replica;
+    }
+
+    public void replicaSynced(long snapshotAt) {
+        replicaSnapshotAt = snapshotAt;
+    }
+
+    public long getReplicaLagMillis() {
+        long snapshotAt = replicaSnapshotAt;
+        return snapshotAt == Long.MIN_VALUE ? Long.MAX_VALUE : System.currentTimeMillis() - snapshotAt;
+    }
+
+    @Override
+    public void close() {
+        replica.close();
+        primary.close();
+    }
+
+    Target route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || ReadRouting.isPrimaryForced()) {
+            return Target.PRIMARY;
+        }
+        return getReplicaLagMillis() <= maxLagMillis ? Target.REPLICA : Target.PRIMARY;
+    }
+
+    private static Counter routedCounter(MeterRegistry registry, Target target) {
+        return Counter.builder("filmorate.datasource.routed")
+                .tag("target", target.name().toLowerCase(Locale.ROOT))
+                .register(registry);
+    }
+
+    enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final class Router extends AbstractRoutingDataSource {
+        @Override
+        protected Object determineCurrentLookupKey() {
+            Target target = route();
+            routed.get(target).increment();
+            return target;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package ru.yandex.practicum.filmorate.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "filmorate.datasource.routing.enabled", havingValue = "true")
+public class ReplicaSynchronizer {
+    private static final List<String> TABLES = List.of(
+            "mpa", "genres", "users", "films", "film_genres", "friends", "likes", "film_stats");
+    private static final int BATCH_SIZE = 1000;
+
+    private final ReadWriteRoutingDataSource dataSource;
+    private final Timer syncs;
+    private boolean schemaReady;
+
+    public ReplicaSynchronizer(DataSource dataSource, MeterRegistry registry) throws SQLException {
+        this.dataSource = dataSource.unwrap(ReadWriteRoutingDataSource.class);
+        this.syncs = Timer.builder("filmorate.datasource.replica.syncs")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    @Scheduled(initialDelayString = "${filmorate.datasource.replica.sync-interval:PT1S}",
+            fixedDelayString = "${filmorate.datasource.replica.sync-interval:PT1S}")
+    public synchronized void sync() {
+        long snapshotAt = System.currentTimeMillis();
+        long startedAt = System.nanoTime();
+        try (Connection source = dataSource.getPrimary().getConnection();
+             Connection target = dataSource.getReplica().getConnection()) {
+            if (!schemaReady) {
+                ScriptUtils.executeSqlScript(target, new ClassPathResource("schema.sql"));
+                schemaReady = true;
+            }
+            source.setReadOnly(true);
+            source.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+            source.setAutoCommit(false);
+            target.setAutoCommit(false);
+            try {
+                copy(source, target);
+                target.commit();
+            } catch (SQLException | RuntimeException e) {
+                target.rollback();
+                throw e;
+            } finally {
+                source.rollback();
+            }
+            dataSource.replicaSynced(snapshotAt);
+        } catch (SQLException | RuntimeException e) {
+            log.warn("Не удалось синхронизировать реплику", e);
+        } finally {
+            syncs.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static void copy(Connection source, Connection target) throws SQLException {
+        List<String> reversed = new ArrayList<>(TABLES);
+        Collections.reverse(reversed);
+        try (Statement statement = target.createStatement()) {
+            for (String table : reversed) {
+                statement.executeUpdate("DELETE FROM " + table);
+            }
+        }
+        for (String table : TABLES) {
+            copyTable(source, target, table);
+        }
+    }
+
+    private static void copyTable(Connection source, Connection target, String table) throws SQLException {
+        try (Statement select = source.createStatement();
+             ResultSet rows = select.executeQuery("SELECT * FROM " + table)) {
+            ResultSetMetaData metaData = rows.getMetaData();
+            int columns = metaData.getColumnCount();
+            List<String> names = new ArrayList<>(columns);
+            for (int i = 1; i <= columns; i++) {
+                names.add(metaData.getColumnName(i));
+            }
+            String insert = "INSERT INTO " + table + " (" + String.join(", ", names) + ") VALUES ("
+                    + String.join(", ", Collections.nCopies(columns, "?")) + ")";
+            try (PreparedStatement statement = target.prepareStatement(insert)) {
+                int pending = 0;
+                while (rows.next()) {
+                    for (int i = 1; i <= columns; i++) {
+                        statement.setObject(i, rows.getObject(i));
+                    }
+                    statement.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        statement.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    statement.executeBatch();
+                }
+            }
+        }
+    }
+}
@@ -4,6 +4,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -14,11 +16,22 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.yandex.practicum.filmorate.dto.BatchResultDto;
 import ru.yandex.practicum.filmorate.dto.FilmDto;
+import ru.yandex.practicum.filmorate.dto.FilmPageDto;
+import ru.yandex.practicum.filmorate.dto.ImportResultDto;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.service.film.FilmImportService;
 import ru.yandex.practicum.filmorate.service.film.FilmService;
+import ru.yandex.practicum.filmorate.service.recommendation.RecommendationService;
 import ru.yandex.practicum.filmorate.service.validation.ValidationService;
+import ru.yandex.practicum.filmorate.service.version.VersionStamp;
+import ru.yandex.practicum.filmorate.service.version.VersionStamps;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -28,6 +41,10 @@ import java.util.List;
 public class FilmController {
     private final FilmService filmService;
     private final ValidationService validationService;
+    private final FilmImportService filmImportService;
+    private final RecommendationService recommendationService;
+    private final NdjsonResponseWriter ndjsonWriter;
+    private final VersionStamps versionStamps;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -56,10 +73,35 @@ public class FilmController {
         return filmService.getAllFilms();
     }
 
-    @GetMapping("/{filmId}")
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllFilms() {
+        log.info("Получен запрос на потоковую выгрузку всех фильмов");
+        return ndjsonWriter.write(filmService::streamAllFilms);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public ImportResultDto importFilms(InputStream body) {
+        log.info("Получен запрос на импорт фильмов");
+        return filmImportService.importFilms(body);
+    }
+
+    @GetMapping(params = "limit")
     @ResponseStatus(HttpStatus.OK)
-    public FilmDto getFilmById(@PathVariable Long filmId) {
+    public FilmPageDto getFilmsPage(@RequestParam(required = false) Long after,
+                                    @RequestParam(required = false) String cursor,
+                                    @RequestParam Integer limit) {
+        log.info("Получен запрос на получение страницы фильмов после id={}, размер={}", after, limit);
+        return filmService.getFilmsPage(after, cursor, limit);
+    }
+
+    @GetMapping("/{filmId}")
+    public FilmDto getFilmById(@PathVariable Long filmId, WebRequest request) {
         log.info("Получен запрос на получение фильма с id={}", filmId);
+        VersionStamp stamp = versionStamps.film(filmId);
+        if (filmService.existsFilm(filmId) && request.checkNotModified(stamp.etag(), stamp.lastModified())) {
+            return null;
+        }
         return filmService.getFilmById(filmId);
     }
 
@@ -72,6 +114,16 @@ public class FilmController {
         log.info("Добавление лайка завершено");
     }
 
+    @PutMapping("/likes/batch")
+    @ResponseStatus(HttpStatus.OK)
+    public BatchResultDto addLikes(@RequestBody List<Like> likes) {
+        log.info("Запрошено пакетное добавление {} лайков", likes.size());
+        BatchResultDto result = filmService.addLikes(likes);
+        log.info("Пакетное добавление лайков завершено: добавлено {}, дубликатов {}, не найдено {}",
+                result.getAdded(), result.getDuplicates(), result.getNotFound());
+        return result;
+    }
+
     @DeleteMapping("/{filmId}/like/{userId}")
     @ResponseStatus(HttpStatus.OK)
     public void removeLike(@PathVariable Long userId,
@@ -81,10 +133,22 @@ public class FilmController {
         log.info("Удаление лайка завершено");
     }
 
-    @GetMapping("/popular")
+    @GetMapping("/{filmId}/similar")
     @ResponseStatus(HttpStatus.OK)
-    public List<FilmDto> getTheMostPopularFilms(@RequestParam(required = false, defaultValue = "10") Integer count) {
+    public List<FilmDto> getSimilarFilms(@PathVariable Long filmId,
+                                         @RequestParam(required = false) Integer limit) {
+        log.info("Получен запрос на похожие фильмы для фильма с id={}", filmId);
+        return recommendationService.getSimilarFilms(filmId, limit);
+    }
+
+    @GetMapping("/popular")
+    public List<FilmDto> getTheMostPopularFilms(@RequestParam(required = false, defaultValue = "10") Integer count,
+                                                WebRequest request) {
         log.info("Получен запрос на получение {} самых популярных фильмов", count);
+        VersionStamp stamp = versionStamps.popular();
+        if (request.checkNotModified(stamp.etag(), stamp.lastModified())) {
+            return null;
+        }
         return filmService.getTheMostPopularFilms(count);
     }
 }
\ No newline at end of file
@@ -2,14 +2,15 @@ package ru.yandex.practicum.filmorate.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import ru.yandex.practicum.filmorate.model.Genre;
-import ru.yandex.practicum.filmorate.repository.genre.GenreRepositoryInterface;
+import ru.yandex.practicum.filmorate.repository.reference.ReferenceDataCache;
+import ru.yandex.practicum.filmorate.service.version.VersionStamp;
+import ru.yandex.practicum.filmorate.service.version.VersionStamps;
 
 import java.util.List;
 
@@ -18,19 +19,26 @@ import java.util.List;
 @Slf4j
 @RequiredArgsConstructor
 public class GenreController {
-    private final GenreRepositoryInterface genreRepository;
+    private final ReferenceDataCache referenceData;
+    private final VersionStamps versionStamps;
 
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public List<Genre> getAllGenres() {
+    public List<Genre> getAllGenres(WebRequest request) {
         log.info("Получен запрос на получение списка всех жанров");
-        return genreRepository.getAllGenres();
+        VersionStamp stamp = versionStamps.reference();
+        if (request.checkNotModified(stamp.etag(), stamp.lastModified())) {
+            return null;
+        }
+        return referenceData.getAllGenres();
     }
 
     @GetMapping("/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public Genre getGenreById(@PathVariable int id) {
+    public Genre getGenreById(@PathVariable int id, WebRequest request) {
         log.info("Получен запрос на получение жанра с id={}", id);
-        return genreRepository.getById(id);
+        VersionStamp stamp = versionStamps.reference();
+        if (request.checkNotModified(stamp.etag(), stamp.lastModified())) {
+            return null;
+        }
+        return referenceData.getGenreById(id);
     }
 }
\ No newline at end of file
@@ -2,14 +2,15 @@ package ru.yandex.practicum.filmorate.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import ru.yandex.practicum.filmorate.model.Mpa;
-import ru.yandex.practicum.filmorate.repository.mpa.MpaRepositoryInterface;
+import ru.yandex.practicum.filmorate.repository.reference.ReferenceDataCache;
+import ru.yandex.practicum.filmorate.service.version.VersionStamp;
+import ru.yandex.practicum.filmorate.service.version.VersionStamps;
 
 import java.util.List;
 
@@ -18,19 +19,26 @@ import java.util.List;
 @RequiredArgsConstructor
 @Slf4j
 public class MpaController {
-    private final MpaRepositoryInterface mpaRepository;
+    private final ReferenceDataCache referenceData;
+    private final VersionStamps versionStamps;
 
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public List<Mpa> getAllRatings() {
+    public List<Mpa> getAllRatings(WebRequest request) {
         log.info("Получен запрос на получение списка всех рейтингов");
-        return mpaRepository.getAll();
+        VersionStamp stamp = versionStamps.reference();
+        if (request.checkNotModified(stamp.etag(), stamp.lastModified())) {
+            return null;
+        }
+        return referenceData.getAllMpa();
     }
 
     @GetMapping("/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public Mpa getRatingById(@PathVariable int id) {
+    public Mpa getRatingById(@PathVariable int id, WebRequest request) {
         log.info("Получен запрос на получение рейтинга с id={}", id);
-        return mpaRepository.getById(id);
+        VersionStamp stamp = versionStamps.reference();
+        if (request.checkNotModified(stamp.etag(), stamp.lastModified())) {
+            return null;
+        }
+        return referenceData.getMpaById(id);
     }
 }
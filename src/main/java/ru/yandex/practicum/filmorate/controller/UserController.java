@@ -3,6 +3,8 @@ package ru.yandex.practicum.filmorate.controller;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -10,13 +12,22 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.yandex.practicum.filmorate.dto.BatchResultDto;
+import ru.yandex.practicum.filmorate.dto.FilmDto;
+import ru.yandex.practicum.filmorate.dto.ImportResultDto;
 import ru.yandex.practicum.filmorate.dto.UserDto;
+import ru.yandex.practicum.filmorate.model.Friendship;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.recommendation.RecommendationService;
+import ru.yandex.practicum.filmorate.service.user.UserImportService;
 import ru.yandex.practicum.filmorate.service.user.UserService;
 import ru.yandex.practicum.filmorate.service.validation.ValidationService;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -25,7 +36,10 @@ import java.util.List;
 @RequiredArgsConstructor
 public class UserController {
     private final ValidationService validationService;
+    private final UserImportService userImportService;
     private final UserService userService;
+    private final RecommendationService recommendationService;
+    private final NdjsonResponseWriter ndjsonWriter;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -54,6 +68,19 @@ public class UserController {
         return userService.getAllUsers();
     }
 
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllUsers() {
+        log.info("Получен запрос на потоковую выгрузку пользователей");
+        return ndjsonWriter.write(userService::streamAllUsers);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public ImportResultDto importUsers(InputStream body) {
+        log.info("Получен запрос на импорт пользователей");
+        return userImportService.importUsers(body);
+    }
+
     @PutMapping("/{userId}/friends/{friendId}")
     @ResponseStatus(HttpStatus.OK)
     public void addFriend(@PathVariable Long userId,
@@ -63,6 +90,16 @@ public class UserController {
         log.info("Добавление друзей с id={} и id={} завершено", userId, friendId);
     }
 
+    @PutMapping("/friends/batch")
+    @ResponseStatus(HttpStatus.OK)
+    public BatchResultDto addFriends(@RequestBody List<Friendship> friendships) {
+        log.info("Запрошено пакетное добавление {} друзей", friendships.size());
+        BatchResultDto result = userService.addFriends(friendships);
+        log.info("Пакетное добавление друзей завершено: добавлено {}, дубликатов {}, не найдено {}",
+                result.getAdded(), result.getDuplicates(), result.getNotFound());
+        return result;
+    }
+
     @DeleteMapping("/{userId}/friends/{friendId}")
     @ResponseStatus(HttpStatus.OK)
     public void deleteFriend(@PathVariable Long userId,
@@ -79,6 +116,30 @@ public class UserController {
         return userService.getFriendsList(userId);
     }
 
+    @GetMapping("/{userId}/friends/suggestions")
+    @ResponseStatus(HttpStatus.OK)
+    public List<UserDto> getFriendSuggestions(@PathVariable Long userId,
+                                              @RequestParam(required = false) Integer limit) {
+        log.info("Получен запрос на рекомендации друзей для пользователя с id={}", userId);
+        return userService.getFriendSuggestions(userId, limit);
+    }
+
+    @GetMapping("/{userId}/path/{otherId}")
+    @ResponseStatus(HttpStatus.OK)
+    public List<UserDto> getFriendPath(@PathVariable Long userId,
+                                       @PathVariable Long otherId) {
+        log.info("Получен запрос на поиск цепочки друзей от пользователя с id={} до id={}", userId, otherId);
+        return userService.getFriendPath(userId, otherId);
+    }
+
+    @GetMapping("/{userId}/recommendations")
+    @ResponseStatus(HttpStatus.OK)
+    public List<FilmDto> getRecommendations(@PathVariable Long userId,
+                                            @RequestParam(required = false) Integer limit) {
+        log.info("Получен запрос на рекомендации фильмов для пользователя с id={}", userId);
+        return recommendationService.getRecommendations(userId, limit);
+    }
+
     @GetMapping("/{id}/friends/common/{friendId}")
     @ResponseStatus(HttpStatus.OK)
     public List<UserDto> getCommonFriends(@PathVariable Long id,
@@ -0,0 +1,15 @@
+package ru.yandex.practicum.filmorate.controller.cache;
+
+import java.nio.ByteBuffer;
+
+public record CachedResponse(String stamp,
+                             String contentType,
+                             String etag,
+                             String lastModified,
+                             ByteBuffer identity,
+                             ByteBuffer gzip) {
+
+    public int sizeInBytes() {
+        return identity.capacity() + (gzip == null ? 0 : gzip.capacity());
+    }
+}
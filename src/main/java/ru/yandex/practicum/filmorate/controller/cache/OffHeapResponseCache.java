@@ -0,0 +1,138 @@
+package ru.yandex.practicum.filmorate.controller.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+
+@Component
+@ConditionalOnProperty(name = "filmorate.response-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class OffHeapResponseCache {
+    private static final int GZIP_MIN_BYTES = 512;
+
+    private final long maxBytes;
+    private final int maxEntryBytes;
+    private final boolean gzip;
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private volatile long usedBytes;
+
+    public OffHeapResponseCache(MeterRegistry registry,
+                                @Value("${filmorate.response-cache.max-size:64MB}") DataSize maxSize,
+                                @Value("${filmorate.response-cache.max-entry-size:1MB}") DataSize maxEntrySize,
+                                @Value("${filmorate.response-cache.gzip:true}") boolean gzip) {
+        this.maxBytes = maxSize.toBytes();
+        this.maxEntryBytes = (int) Math.min(maxEntrySize.toBytes(), Integer.MAX_VALUE);
+        this.gzip = gzip;
+        this.hits = Counter.builder("filmorate.response-cache.gets").tag("result", "hit").register(registry);
+        this.misses = Counter.builder("filmorate.response-cache.gets").tag("result", "miss").register(registry);
+        this.evictions = registry.counter("filmorate.response-cache.evictions");
+        Gauge.builder("filmorate.response-cache.size", this, OffHeapResponseCache::getUsedBytes)
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    public CachedResponse get(String key, String stamp) {
+        lock.lock();
+        try {
+            CachedResponse cached = entries.get(key);
+            if (cached != null && !cached.stamp().equals(stamp)) {
+                entries.remove(key);
+                usedBytes -= cached.sizeInBytes();
+                cached = null;
+            }
+            (cached == null ? misses : hits).increment();
+            return cached;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean put(String key, String stamp, String contentType, String etag, String lastModified, byte[] body) {
+        if (body.length > maxEntryBytes) {
+            return false;
+        }
+        CachedResponse cached = new CachedResponse(stamp, contentType, etag, lastModified,
+                toDirect(body), gzip && body.length >= GZIP_MIN_BYTES ? compress(body) : null);
+        int size = cached.sizeInBytes();
+        if (size > maxBytes) {
+            return false;
+        }
+        lock.lock();
+        try {
+            CachedResponse previous = entries.put(key, cached);
+            if (previous != null) {
+                usedBytes -= previous.sizeInBytes();
+            }
+            usedBytes += size;
+            Iterator<Map.Entry<String, CachedResponse>> eldest = entries.entrySet().iterator();
+            while (usedBytes > maxBytes && eldest.hasNext()) {
+                Map.Entry<String, CachedResponse> entry = eldest.next();
+                if (entry.getValue() == cached) {
+                    continue;
+                }
+                usedBytes -= entry.getValue().sizeInBytes();
+                eldest.remove();
+                evictions.increment();
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            entries.clear();
+            usedBytes = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ByteBuffer compress(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 2);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.size() < body.length ? toDirect(compressed.toByteArray()) : null;
+    }
+
+    private static ByteBuffer toDirect(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+        return buffer.asReadOnlyBuffer();
+    }
+}
@@ -0,0 +1,147 @@
+package ru.yandex.practicum.filmorate.controller.cache;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.apache.catalina.connector.CoyoteOutputStream;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import ru.yandex.practicum.filmorate.service.version.VersionStamp;
+import ru.yandex.practicum.filmorate.service.version.VersionStamps;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 100)
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "filmorate.response-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class ResponseCacheFilter extends OncePerRequestFilter {
+    private static final String FILMS_PREFIX = "/films/";
+    private static final String POPULAR_FILMS = "/films/popular";
+    private static final String GZIP = "gzip";
+    private static final int COPY_CHUNK_SIZE = 8192;
+
+    private final OffHeapResponseCache cache;
+    private final VersionStamps versionStamps;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.GET.matches(request.getMethod())
+                || request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null
+                || !acceptsJson(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        VersionStamp stamp = stampFor(request.getRequestURI());
+        if (stamp == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        String query = request.getQueryString();
+        String key = query == null ? request.getRequestURI() : request.getRequestURI() + '?' + query;
+        CachedResponse cached = cache.get(key, stamp.etag());
+        if (cached != null) {
+            writeCached(cached, request, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, wrapper);
+        if (wrapper.getStatus() == HttpServletResponse.SC_OK && isJson(wrapper.getContentType())) {
+            cache.put(key, stamp.etag(), wrapper.getContentType(), wrapper.getHeader(HttpHeaders.ETAG),
+                    wrapper.getHeader(HttpHeaders.LAST_MODIFIED), wrapper.getContentAsByteArray());
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private VersionStamp stampFor(String path) {
+        if (path.equals("/genres") || path.startsWith("/genres/") || path.equals("/mpa") || path.startsWith("/mpa/")) {
+            return versionStamps.reference();
+        }
+        if (path.equals(POPULAR_FILMS)) {
+            return versionStamps.popular();
+        }
+        if (path.startsWith(FILMS_PREFIX)) {
+            long filmId = parseId(path, FILMS_PREFIX.length());
+            return filmId < 0 ? null : versionStamps.film(filmId);
+        }
+        return null;
+    }
+
+    private static long parseId(String path, int from) {
+        if (from == path.length() || path.length() - from > 18) {
+            return -1;
+        }
+        long id = 0;
+        for (int i = from; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            id = id * 10 + (c - '0');
+        }
+        return id;
+    }
+
+    private static void writeCached(CachedResponse cached, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        ByteBuffer source = cached.identity();
+        if (cached.gzip() != null) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (acceptsGzip(request)) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+                source = cached.gzip();
+            }
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(cached.contentType());
+        if (cached.etag() != null) {
+            response.setHeader(HttpHeaders.ETAG, cached.etag());
+        }
+        if (cached.lastModified() != null) {
+            response.setHeader(HttpHeaders.LAST_MODIFIED, cached.lastModified());
+        }
+        response.setContentLength(source.capacity());
+
+        ByteBuffer body = source.duplicate();
+        ServletOutputStream out = response.getOutputStream();
+        if (out instanceof CoyoteOutputStream coyote) {
+            coyote.write(body);
+            return;
+        }
+        byte[] chunk = new byte[Math.min(COPY_CHUNK_SIZE, body.remaining())];
+        while (body.hasRemaining()) {
+            int length = Math.min(chunk.length, body.remaining());
+            body.get(chunk, 0, length);
+            out.write(chunk, 0, length);
+        }
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.contains(GZIP);
+    }
+
+    private static boolean acceptsJson(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return accept == null || accept.contains(MediaType.APPLICATION_JSON_VALUE) || accept.contains("*/*");
+    }
+
+    private static boolean isJson(String contentType) {
+        return contentType != null && contentType.startsWith(MediaType.APPLICATION_JSON_VALUE);
+    }
+}
@@ -0,0 +1,27 @@
+package ru.yandex.practicum.filmorate.dto;
+
+import lombok.Data;
+import ru.yandex.practicum.filmorate.model.BatchItemStatus;
+
+import java.util.List;
+
+@Data
+public class BatchResultDto {
+    private int added;
+    private int duplicates;
+    private int notFound;
+    private List<BatchItemStatus> results;
+
+    public static BatchResultDto of(List<BatchItemStatus> results) {
+        BatchResultDto dto = new BatchResultDto();
+        dto.setResults(results);
+        for (BatchItemStatus status : results) {
+            switch (status) {
+                case ADDED -> dto.added++;
+                case DUPLICATE -> dto.duplicates++;
+                case NOT_FOUND -> dto.notFound++;
+            }
+        }
+        return dto;
+    }
+}
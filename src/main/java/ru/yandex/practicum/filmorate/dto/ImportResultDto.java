@@ -0,0 +1,25 @@
+package ru.yandex.practicum.filmorate.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.concurrent.TimeUnit;
+
+@Data
+@Builder
+public class ImportResultDto {
+    private long accepted;
+    private long rejected;
+    private long elapsedMillis;
+    private long rowsPerSecond;
+
+    public static ImportResultDto of(long accepted, long rejected, long startedAtNanos) {
+        long elapsedNanos = Math.max(System.nanoTime() - startedAtNanos, 1);
+        return ImportResultDto.builder()
+                .accepted(accepted)
+                .rejected(rejected)
+                .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+                .rowsPerSecond((accepted + rejected) * TimeUnit.SECONDS.toNanos(1) / elapsedNanos)
+                .build();
+    }
+}
@@ -0,0 +1,67 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class CallTimingAspect {
+    static final String REPOSITORY_TIMER = "filmorate.repository.calls";
+    static final String SERVICE_TIMER = "filmorate.service.calls";
+    private static final String NO_EXCEPTION = "none";
+
+    private final MeterRegistry registry;
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    @Around("execution(* ru.yandex.practicum.filmorate.repository.film.FilmRepositoryInterface.*(..))"
+            + " || execution(* ru.yandex.practicum.filmorate.repository.user.UserRepositoryInterface.*(..))"
+            + " || execution(* ru.yandex.practicum.filmorate.repository.genre.GenreRepositoryInterface.*(..))"
+            + " || execution(* ru.yandex.practicum.filmorate.repository.mpa.MpaRepositoryInterface.*(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(REPOSITORY_TIMER, joinPoint);
+    }
+
+    @Around("execution(* ru.yandex.practicum.filmorate.service.film.FilmService.*(..))"
+            + " || execution(* ru.yandex.practicum.filmorate.service.user.UserService.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(SERVICE_TIMER, joinPoint);
+    }
+
+    private Object time(String name, ProceedingJoinPoint joinPoint) throws Throwable {
+        long startedAt = System.nanoTime();
+        String exception = NO_EXCEPTION;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            TimerKey key = new TimerKey(name, joinPoint.getTarget().getClass().getSimpleName(),
+                    joinPoint.getSignature().getName(), exception);
+            timers.computeIfAbsent(key, this::register).record(System.nanoTime() - startedAt,
+                    TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer register(TimerKey key) {
+        return Timer.builder(key.name())
+                .tag("class", key.type())
+                .tag("method", key.method())
+                .tag("exception", key.exception())
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private record TimerKey(String name, String type, String method, String exception) {
+    }
+}
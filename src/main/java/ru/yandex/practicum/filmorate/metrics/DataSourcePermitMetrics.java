@@ -0,0 +1,37 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.config.ConcurrencyLimitingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+@Component
+@RequiredArgsConstructor
+public class DataSourcePermitMetrics implements MeterBinder {
+    private final DataSource dataSource;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        ConcurrencyLimitingDataSource limiter;
+        try {
+            if (!dataSource.isWrapperFor(ConcurrencyLimitingDataSource.class)) {
+                return;
+            }
+            limiter = dataSource.unwrap(ConcurrencyLimitingDataSource.class);
+        } catch (SQLException e) {
+            return;
+        }
+        Gauge.builder("filmorate.datasource.permits.max", limiter, ConcurrencyLimitingDataSource::getMaxConcurrency)
+                .register(registry);
+        Gauge.builder("filmorate.datasource.permits.available", limiter,
+                        ConcurrencyLimitingDataSource::getAvailablePermits)
+                .register(registry);
+        Gauge.builder("filmorate.datasource.permits.waiting", limiter, ConcurrencyLimitingDataSource::getWaitingThreads)
+                .register(registry);
+    }
+}
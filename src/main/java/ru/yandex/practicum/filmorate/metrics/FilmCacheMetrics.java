@@ -0,0 +1,37 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.repository.film.CachingFilmRepository;
+
+@Component
+@RequiredArgsConstructor
+public class FilmCacheMetrics implements MeterBinder {
+    private static final String CACHE_TAG = "cache";
+    private static final String CACHE_NAME = "films";
+
+    private final CachingFilmRepository filmRepository;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("filmorate.cache.gets", filmRepository, repository -> repository.getStats().hitCount())
+                .tag(CACHE_TAG, CACHE_NAME)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("filmorate.cache.gets", filmRepository, repository -> repository.getStats().missCount())
+                .tag(CACHE_TAG, CACHE_NAME)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("filmorate.cache.evictions", filmRepository,
+                        repository -> repository.getStats().evictionCount())
+                .tag(CACHE_TAG, CACHE_NAME)
+                .register(registry);
+        Gauge.builder("filmorate.cache.size", filmRepository, CachingFilmRepository::getSize)
+                .tag(CACHE_TAG, CACHE_NAME)
+                .register(registry);
+    }
+}
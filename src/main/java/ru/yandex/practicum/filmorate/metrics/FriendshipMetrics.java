@@ -0,0 +1,26 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+@Component
+public class FriendshipMetrics {
+    static final String FRIENDS_COUNTER = "filmorate.friends.changes";
+
+    private final Counter added;
+    private final Counter removed;
+
+    public FriendshipMetrics(MeterRegistry registry) {
+        this.added = Counter.builder(FRIENDS_COUNTER).tag("change", "added").register(registry);
+        this.removed = Counter.builder(FRIENDS_COUNTER).tag("change", "removed").register(registry);
+    }
+
+    public void friendshipAdded() {
+        added.increment();
+    }
+
+    public void friendshipRemoved() {
+        removed.increment();
+    }
+}
@@ -0,0 +1,29 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.service.film.LikeListener;
+
+@Component
+public class LikeMetrics implements LikeListener {
+    static final String LIKES_COUNTER = "filmorate.likes.changes";
+
+    private final Counter added;
+    private final Counter removed;
+
+    public LikeMetrics(MeterRegistry registry) {
+        this.added = Counter.builder(LIKES_COUNTER).tag("change", "added").register(registry);
+        this.removed = Counter.builder(LIKES_COUNTER).tag("change", "removed").register(registry);
+    }
+
+    @Override
+    public void likeAdded(long filmId, long userId) {
+        added.increment();
+    }
+
+    @Override
+    public void likeRemoved(long filmId, long userId) {
+        removed.increment();
+    }
+}
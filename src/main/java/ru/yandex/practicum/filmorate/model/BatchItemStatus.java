@@ -0,0 +1,7 @@
+package ru.yandex.practicum.filmorate.model;
+
+public enum BatchItemStatus {
+    ADDED,
+    DUPLICATE,
+    NOT_FOUND
+}
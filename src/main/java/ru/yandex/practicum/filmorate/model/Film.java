@@ -26,4 +26,8 @@ public class Film {
     public Mpa getMpa() {
         return this.mpa != null ? this.mpa : new Mpa(1, "G");
     }
+
+    public boolean hasMpa() {
+        return this.mpa != null;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,157 @@
+package ru.yandex.practicum.filmorate.repository.film;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+import ru.yandex.practicum.filmorate.config.ReadRouting;
+import ru.yandex.practicum.filmorate.model.BatchItemStatus;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Like;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+@Primary
+@Repository
+public class CachingFilmRepository implements FilmRepositoryInterface {
+    private final FilmRepositoryInterface delegate;
+    private final Cache<Long, Film> films;
+
+    public CachingFilmRepository(@Qualifier("jdbcFilmRepository") FilmRepositoryInterface delegate,
+                                 @Value("${filmorate.film-cache.maximum-size:10000}") long maximumSize,
+                                 @Value("${filmorate.film-cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.delegate = delegate;
+        this.films = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Film saveFilm(Film film) {
+        Film savedFilm = delegate.saveFilm(film);
+        films.invalidate(savedFilm.getId());
+        return savedFilm;
+    }
+
+    @Override
+    public Film updateFilm(Film film) {
+        films.invalidate(film.getId());
+        try {
+            return delegate.updateFilm(film);
+        } finally {
+            films.invalidate(film.getId());
+        }
+    }
+
+    @Override
+    public void importFilms(List<Film> films) {
+        delegate.importFilms(films);
+    }
+
+    @Override
+    public List<Film> getAllFilms() {
+        return delegate.getAllFilms();
+    }
+
+    @Override
+    public List<Film> getFilmsPage(Long afterId, int limit) {
+        return delegate.getFilmsPage(afterId, limit);
+    }
+
+    @Override
+    public void streamAllFilms(Consumer<Film> consumer) {
+        delegate.streamAllFilms(consumer);
+    }
+
+    @Override
+    public void streamAllLikes(Consumer<Like> consumer) {
+        delegate.streamAllLikes(consumer);
+    }
+
+    @Override
+    public Optional<Film> getFilmById(Long id) {
+        return Optional.ofNullable(films.get(id, key ->
+                ReadRouting.onPrimary(() -> delegate.getFilmById(key).orElse(null))));
+    }
+
+    @Override
+    public List<Film> getFilmsByIds(List<Long> ids) {
+        Map<Long, Film> found = films.getAll(ids, this::loadAll);
+        return ids.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    public Set<Long> findExistingFilmIds(Collection<Long> ids) {
+        return ReadRouting.onPrimary(() -> delegate.findExistingFilmIds(ids));
+    }
+
+    @Override
+    public void addLike(Long userId, Long filmId) {
+        delegate.addLike(userId, filmId);
+    }
+
+    @Override
+    public void removeLike(Long userId, Long filmId) {
+        delegate.removeLike(userId, filmId);
+    }
+
+    @Override
+    public List<BatchItemStatus> addLikes(List<Like> likes) {
+        return delegate.addLikes(likes);
+    }
+
+    @Override
+    public int removeLikes(List<Like> likes) {
+        return delegate.removeLikes(likes);
+    }
+
+    @Override
+    public List<Long> getLikes(Long filmId) {
+        return delegate.getLikes(filmId);
+    }
+
+    @Override
+    public int rebuildLikeCounters() {
+        return delegate.rebuildLikeCounters();
+    }
+
+    @Override
+    public Map<Long, Integer> getLikesCounts() {
+        return delegate.getLikesCounts();
+    }
+
+    public CacheStats getStats() {
+        return films.stats();
+    }
+
+    public long getSize() {
+        return films.estimatedSize();
+    }
+
+    public void invalidateAll() {
+        films.invalidateAll();
+    }
+
+    private Map<Long, Film> loadAll(Set<? extends Long> ids) {
+        Map<Long, Film> loaded = new HashMap<>();
+        ReadRouting.onPrimary(() -> delegate.getFilmsByIds(List.copyOf(ids)))
+                .forEach(film -> loaded.put(film.getId(), film));
+        return loaded;
+    }
+}
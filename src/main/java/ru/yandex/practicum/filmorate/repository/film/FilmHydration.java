@@ -0,0 +1,6 @@
+package ru.yandex.practicum.filmorate.repository.film;
+
+public enum FilmHydration {
+    JOIN,
+    TWO_PHASE
+}
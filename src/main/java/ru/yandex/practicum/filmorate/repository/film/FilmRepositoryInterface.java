@@ -1,24 +1,48 @@
 package ru.yandex.practicum.filmorate.repository.film;
 
+import ru.yandex.practicum.filmorate.model.BatchItemStatus;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Like;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface FilmRepositoryInterface {
     Film saveFilm(Film film);
 
     Film updateFilm(Film film);
 
+    void importFilms(List<Film> films);
+
     List<Film> getAllFilms();
 
+    List<Film> getFilmsPage(Long afterId, int limit);
+
+    void streamAllFilms(Consumer<Film> consumer);
+
     Optional<Film> getFilmById(Long id);
 
+    List<Film> getFilmsByIds(List<Long> ids);
+
+    Set<Long> findExistingFilmIds(Collection<Long> ids);
+
     void addLike(Long userId, Long filmId);
 
     void removeLike(Long userId, Long filmId);
 
-    List<Film> getTheMostPopularFilms(Integer count);
+    List<BatchItemStatus> addLikes(List<Like> likes);
+
+    int removeLikes(List<Like> likes);
 
     List<Long> getLikes(Long filmId);
+
+    void streamAllLikes(Consumer<Like> consumer);
+
+    int rebuildLikeCounters();
+
+    Map<Long, Integer> getLikesCounts();
 }
\ No newline at end of file
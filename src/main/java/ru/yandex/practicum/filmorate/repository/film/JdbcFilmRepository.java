@@ -1,11 +1,15 @@
 package ru.yandex.practicum.filmorate.repository.film;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import jakarta.transaction.Transactional;
-import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
 import org.springframework.jdbc.core.namedparam.SqlParameterSource;
@@ -15,21 +19,33 @@ import org.springframework.stereotype.Repository;
 import ru.yandex.practicum.filmorate.exception.DuplicatedDataException;
 import ru.yandex.practicum.filmorate.exception.InternalServerException;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.model.BatchItemStatus;
 import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Like;
 import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.repository.reference.ReferenceDataCache;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Savepoint;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Repository
-@RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class JdbcFilmRepository implements FilmRepositoryInterface {
     private static final String INSERT_FILM = """
             INSERT INTO films (name, description, release_date, duration, mpa_id)
@@ -49,13 +65,58 @@ public class JdbcFilmRepository implements FilmRepositoryInterface {
     private static final String GET_ALL_FILMS = """
             SELECT
                 f.film_id, f.name, f.description, f.release_date, f.duration, f.mpa_id,
-                g.genre_id, g.name as genre_name,
-                m.mpa_id as mpa_id, m.name as mpa_name
+                fg.genre_id
             FROM films f
             LEFT JOIN film_genres fg ON f.film_id = fg.film_id
-            LEFT JOIN genres g ON fg.genre_id = g.genre_id
-            LEFT JOIN mpa m ON f.mpa_id = m.mpa_id
-            ORDER BY f.film_id, g.genre_id
+            ORDER BY f.film_id, fg.genre_id
+            """;
+
+    private static final String GET_FILMS_PAGE = """
+            SELECT
+                f.film_id, f.name, f.description, f.release_date, f.duration, f.mpa_id,
+                fg.genre_id
+            FROM (
+                SELECT film_id, name, description, release_date, duration, mpa_id
+                FROM films
+                WHERE film_id > :afterId
+                ORDER BY film_id
+                LIMIT :limit
+            ) f
+            LEFT JOIN film_genres fg ON f.film_id = fg.film_id
+            ORDER BY f.film_id, fg.genre_id
+            """;
+
+    private static final String GET_FILMS_BY_IDS = """
+            SELECT
+                f.film_id, f.name, f.description, f.release_date, f.duration, f.mpa_id,
+                fg.genre_id
+            FROM films f
+            LEFT JOIN film_genres fg ON f.film_id = fg.film_id
+            WHERE f.film_id IN (:ids)
+            ORDER BY f.film_id, fg.genre_id
+            """;
+
+    private static final String FILM_COLUMNS = "film_id, name, description, release_date, duration, mpa_id";
+    private static final String GET_ALL_FILM_ROWS = "SELECT " + FILM_COLUMNS + " FROM films ORDER BY film_id";
+    private static final String GET_FILM_ROWS_PAGE = """
+            SELECT %s
+            FROM films
+            WHERE film_id > :afterId
+            ORDER BY film_id
+            LIMIT :limit
+            """.formatted(FILM_COLUMNS);
+    private static final String GET_FILM_ROWS_BY_IDS = "SELECT " + FILM_COLUMNS + " FROM films WHERE film_id IN (:ids)";
+    private static final String GET_FILM_ROW_BY_ID = "SELECT " + FILM_COLUMNS + " FROM films WHERE film_id = :id";
+    private static final String GET_ALL_FILM_GENRES = """
+            SELECT film_id, genre_id
+            FROM film_genres
+            ORDER BY film_id, genre_id
+            """;
+    private static final String GET_FILM_GENRES_BY_FILM_IDS = """
+            SELECT film_id, genre_id
+            FROM film_genres
+            WHERE film_id IN (:ids)
+            ORDER BY film_id, genre_id
             """;
 
     private static final String GET_FILM_BY_ID;
@@ -67,30 +128,34 @@ public class JdbcFilmRepository implements FilmRepositoryInterface {
             DELETE FROM likes
             WHERE user_id = :userId AND film_id = :filmId
             """;
-    private static final String GET_POPULAR_FILMS = """
-            SELECT
-                 f.film_id,
-                 f.name,
-                 f.description,
-                 f.release_date,
-                 f.duration,
-                 f.mpa_id,
-                 g.genre_id,
-                 g.name as genre_name,
-                 m.mpa_id as mpa_id,
-                 m.name as mpa_name,
-                 l.likes_count
-             FROM films f
-             LEFT JOIN film_genres fg ON f.film_id = fg.film_id
-             LEFT JOIN genres g ON fg.genre_id = g.genre_id
-             LEFT JOIN mpa m ON f.mpa_id = m.mpa_id
-             LEFT JOIN (
-                 SELECT film_id, COUNT(user_id) as likes_count
-                 FROM likes
-                 GROUP BY film_id
-             ) l ON f.film_id = l.film_id
-             ORDER BY l.likes_count DESC, f.film_id ASC
-             LIMIT :limit
+    private static final String INSERT_FILM_WITH_ID = """
+            INSERT INTO films (film_id, name, description, release_date, duration, mpa_id)
+            VALUES (:id, :name, :description, :releaseDate, :duration, :mpaId)
+            """;
+    private static final String ALLOCATE_FILM_IDS = """
+            SELECT NEXT VALUE FOR film_id_seq
+            FROM SYSTEM_RANGE(1, :count)
+            """;
+    private static final String INSERT_FILM_STATS = """
+            INSERT INTO film_stats (film_id, likes_count)
+            VALUES (:filmId, 0)
+            """;
+    private static final String INCREMENT_LIKES_COUNT = """
+            UPDATE film_stats
+            SET likes_count = likes_count + 1
+            WHERE film_id = :filmId
+            """;
+    private static final String DECREMENT_LIKES_COUNT = """
+            UPDATE film_stats
+            SET likes_count = likes_count - 1
+            WHERE film_id = :filmId
+            """;
+    private static final String REBUILD_LIKES_COUNTS = """
+            MERGE INTO film_stats (film_id, likes_count) KEY (film_id)
+            SELECT f.film_id, COUNT(l.user_id)
+            FROM films f
+            LEFT JOIN likes l ON f.film_id = l.film_id
+            GROUP BY f.film_id
             """;
     private static final String DELETE_GENRES = """
             DELETE FROM film_genres
@@ -106,7 +171,30 @@ public class JdbcFilmRepository implements FilmRepositoryInterface {
             WHERE film_id = :filmId
             ORDER BY user_id
             """;
+    private static final String GET_LIKES_COUNTS = """
+            SELECT film_id, likes_count
+            FROM film_stats
+            ORDER BY likes_count DESC, film_id
+            """;
+    private static final String ADD_LIKES_COUNT = """
+            UPDATE film_stats
+            SET likes_count = likes_count + :delta
+            WHERE film_id = :filmId
+            """;
+    private static final String GET_ALL_LIKES = "SELECT film_id, user_id FROM likes";
+    private static final String GET_EXISTING_FILM_IDS = "SELECT film_id FROM films WHERE film_id IN (:ids)";
+    private static final String GET_EXISTING_USER_IDS = "SELECT user_id FROM users WHERE user_id IN (:ids)";
+    private static final String ADD_LIKE_IF_ABSENT = """
+            MERGE INTO likes l
+            USING (VALUES (CAST(:filmId AS BIGINT), CAST(:userId AS BIGINT))) AS s(film_id, user_id)
+            ON l.film_id = s.film_id AND l.user_id = s.user_id
+            WHEN NOT MATCHED THEN INSERT (film_id, user_id) VALUES (s.film_id, s.user_id)
+            """;
+    private static final int INSERT_IF_ABSENT_ATTEMPTS = 3;
+    private static final String COUNT_USERS_BY_ID = "SELECT COUNT(user_id) FROM users WHERE user_id = :id";
+    private static final String COUNT_FILMS_BY_ID = "SELECT COUNT(film_id) FROM films WHERE film_id = :id";
     private static final String FILM_NOT_FOUND = "Фильм с id = %d не найден";
+    private static final String USER_NOT_FOUND = "Пользователь с id = %d не найден";
 
     static {
         GET_FILM_BY_ID = """
@@ -116,20 +204,29 @@ public class JdbcFilmRepository implements FilmRepositoryInterface {
                 f.release_date,
                 f.duration,
                 f.mpa_id,
-                g.genre_id,
-                g.name as genre_name,
-                m.mpa_id as mpa_id,
-                m.name as mpa_name
+                fg.genre_id
                 FROM films f
                 LEFT JOIN film_genres fg ON f.film_id = fg.film_id
-                LEFT JOIN genres g ON fg.genre_id = g.genre_id
-                LEFT JOIN mpa m ON f.mpa_id = m.mpa_id
-                WHERE f.film_id = :id ORDER BY g.genre_id""";
+                WHERE f.film_id = :id ORDER BY fg.genre_id""";
     }
 
-    private static final int DEFAULT_POPULAR_FILMS_LIMIT = 10;
+    private static final int STREAM_FETCH_SIZE = 500;
+    private static final int IN_CLAUSE_CHUNK_SIZE = 1000;
 
     private final NamedParameterJdbcOperations jdbc;
+    private final ReferenceDataCache referenceData;
+    private final FilmHydration hydration;
+    private final FilmRowsMapper filmRowsMapper;
+
+    @Autowired
+    public JdbcFilmRepository(NamedParameterJdbcOperations jdbc,
+                              ReferenceDataCache referenceData,
+                              @Value("${filmorate.film-hydration:join}") FilmHydration hydration) {
+        this.jdbc = jdbc;
+        this.referenceData = referenceData;
+        this.hydration = hydration;
+        this.filmRowsMapper = new FilmRowsMapper(referenceData);
+    }
 
     @Transactional
     @Override
@@ -152,11 +249,53 @@ public class JdbcFilmRepository implements FilmRepositoryInterface {
         }
         Long id = generatedId.longValue();
         film.setId(id);
+        jdbc.update(INSERT_FILM_STATS, new MapSqlParameterSource("filmId", id));
 
         updateFilmGenres(film);
         return film;
     }
 
+    @Transactional
+    @Override
+    public void importFilms(List<Film> films) {
+        if (films.isEmpty()) {
+            return;
+        }
+        List<Long> ids = jdbc.queryForList(ALLOCATE_FILM_IDS,
+                new MapSqlParameterSource("count", films.size()), Long.class);
+
+        SqlParameterSource[] filmParams = new SqlParameterSource[films.size()];
+        SqlParameterSource[] statsParams = new SqlParameterSource[films.size()];
+        List<SqlParameterSource> genreParams = new ArrayList<>();
+        for (int i = 0; i < films.size(); i++) {
+            Film film = films.get(i);
+            Long id = ids.get(i);
+            film.setId(id);
+            filmParams[i] = new MapSqlParameterSource()
+                    .addValue("id", id)
+                    .addValue("name", film.getName())
+                    .addValue("description", film.getDescription())
+                    .addValue("releaseDate", film.getReleaseDate())
+                    .addValue("duration", film.getDuration())
+                    .addValue("mpaId", film.getMpa().getId());
+            statsParams[i] = new MapSqlParameterSource("filmId", id);
+            if (film.getGenres() != null) {
+                film.getGenres().stream()
+                        .map(Genre::getId)
+                        .distinct()
+                        .forEach(genreId -> genreParams.add(new MapSqlParameterSource()
+                                .addValue("filmId", id)
+                                .addValue("genreId", genreId)));
+            }
+        }
+
+        jdbc.batchUpdate(INSERT_FILM_WITH_ID, filmParams);
+        jdbc.batchUpdate(INSERT_FILM_STATS, statsParams);
+        if (!genreParams.isEmpty()) {
+            jdbc.batchUpdate(SET_FILM_GENRE, genreParams.toArray(SqlParameterSource[]::new));
+        }
+    }
+
     @Transactional
     @Override
     public Film updateFilm(Film film) {
@@ -181,24 +320,73 @@ public class JdbcFilmRepository implements FilmRepositoryInterface {
 
     @Override
     public List<Film> getAllFilms() {
-        return jdbc.query(GET_ALL_FILMS, new FilmResultSetExtractor());
+        if (hydration == FilmHydration.JOIN) {
+            return jdbc.query(GET_ALL_FILMS, new FilmResultSetExtractor(referenceData));
+        }
+        List<Film> films = jdbc.query(GET_ALL_FILM_ROWS, filmRowsMapper);
+        Long2ObjectOpenHashMap<Film> filmsById = indexById(films);
+        jdbc.query(GET_ALL_FILM_GENRES, (ResultSet rs) -> attachGenre(filmsById, rs));
+        return films;
+    }
+
+    @Override
+    public List<Film> getFilmsPage(Long afterId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("afterId", afterId == null ? 0L : afterId)
+                .addValue("limit", limit);
+        return queryFilms(GET_FILMS_PAGE, GET_FILM_ROWS_PAGE, params);
+    }
+
+    @Override
+    public void streamAllFilms(Consumer<Film> consumer) {
+        FilmStreamingHandler handler = new FilmStreamingHandler(consumer, referenceData);
+        jdbc.getJdbcOperations().query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(GET_ALL_FILMS,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(STREAM_FETCH_SIZE);
+            return statement;
+        }, handler);
+        handler.flush();
+    }
+
+    @Override
+    public void streamAllLikes(Consumer<Like> consumer) {
+        jdbc.getJdbcOperations().query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(GET_ALL_LIKES,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(STREAM_FETCH_SIZE);
+            return statement;
+        }, (ResultSet rs) -> consumer.accept(new Like(rs.getLong("film_id"), rs.getLong("user_id"))));
     }
 
     @Override
     public Optional<Film> getFilmById(Long id) {
         MapSqlParameterSource params = new MapSqlParameterSource("id", id);
-        List<Film> films = jdbc.query(GET_FILM_BY_ID, params, new FilmResultSetExtractor());
+        List<Film> films = queryFilms(GET_FILM_BY_ID, GET_FILM_ROW_BY_ID, params);
         return films.isEmpty() ? Optional.empty() : Optional.of(films.getFirst());
 
     }
 
     @Override
-    public List<Film> getTheMostPopularFilms(Integer count) {
-        int limit = (count == null || count <= 0) ? DEFAULT_POPULAR_FILMS_LIMIT : count;
-        MapSqlParameterSource params = new MapSqlParameterSource().addValue("limit", limit);
-        return jdbc.query(GET_POPULAR_FILMS, params, new FilmResultSetExtractor());
+    public List<Film> getFilmsByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Film> films = queryFilms(GET_FILMS_BY_IDS, GET_FILM_ROWS_BY_IDS, new MapSqlParameterSource("ids", ids));
+        Map<Long, Film> filmsById = new HashMap<>();
+        films.forEach(film -> filmsById.put(film.getId(), film));
+        return ids.stream()
+                .map(filmsById::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 
+    @Override
+    public Set<Long> findExistingFilmIds(Collection<Long> ids) {
+        return findExistingIds(GET_EXISTING_FILM_IDS, ids);
+    }
+
+
     @Transactional
     @Override
     public void addLike(Long userId, Long filmId) {
@@ -207,8 +395,15 @@ public class JdbcFilmRepository implements FilmRepositoryInterface {
                     .addValue("filmId", filmId)
                     .addValue("userId", userId);
             jdbc.update(ADD_LIKE, params);
-        } catch (DataIntegrityViolationException e) {
+            jdbc.update(INCREMENT_LIKES_COUNT, params);
+        } catch (DuplicateKeyException e) {
             throw new DuplicatedDataException("Пользователь уже поставил лайк этому фильму");
+        } catch (DataIntegrityViolationException e) {
+            NotFoundException missing = missingLikeParticipant(userId, filmId);
+            if (missing == null) {
+                throw e;
+            }
+            throw missing;
         }
     }
 
@@ -220,8 +415,98 @@ public class JdbcFilmRepository implements FilmRepositoryInterface {
                 .addValue("userId", userId);
         int deletedRows = jdbc.update(REMOVE_LIKE, params);
         if (deletedRows == 0) {
-            throw new NotFoundException("Лайк не найден");
+            NotFoundException missing = missingLikeParticipant(userId, filmId);
+            throw missing != null ? missing : new NotFoundException("Лайк не найден");
+        }
+        jdbc.update(DECREMENT_LIKES_COUNT, params);
+    }
+
+    @Transactional
+    @Override
+    public List<BatchItemStatus> addLikes(List<Like> likes) {
+        Set<Long> filmIds = new HashSet<>();
+        Set<Long> userIds = new HashSet<>();
+        likes.forEach(like -> {
+            filmIds.add(like.getFilmId());
+            userIds.add(like.getUserId());
+        });
+        Set<Long> existingFilms = findExistingIds(GET_EXISTING_FILM_IDS, filmIds);
+        Set<Long> existingUsers = findExistingIds(GET_EXISTING_USER_IDS, userIds);
+
+        List<BatchItemStatus> results = new ArrayList<>(likes.size());
+        List<Integer> positions = new ArrayList<>();
+        for (Like like : likes) {
+            if (!existingFilms.contains(like.getFilmId()) || !existingUsers.contains(like.getUserId())) {
+                results.add(BatchItemStatus.NOT_FOUND);
+            } else {
+                positions.add(results.size());
+                results.add(BatchItemStatus.DUPLICATE);
+            }
+        }
+        if (positions.isEmpty()) {
+            return results;
+        }
+
+        SqlParameterSource[] inserts = positions.stream()
+                .map(likes::get)
+                .map(like -> new MapSqlParameterSource()
+                        .addValue("filmId", like.getFilmId())
+                        .addValue("userId", like.getUserId()))
+                .toArray(SqlParameterSource[]::new);
+        int[] inserted = insertIfAbsent(inserts);
+        Map<Long, Integer> deltas = new HashMap<>();
+        for (int i = 0; i < inserted.length; i++) {
+            if (inserted[i] > 0) {
+                int position = positions.get(i);
+                results.set(position, BatchItemStatus.ADDED);
+                deltas.merge(likes.get(position).getFilmId(), 1, Integer::sum);
+            }
+        }
+
+        if (!deltas.isEmpty()) {
+            SqlParameterSource[] counterParams = deltas.entrySet().stream()
+                    .map(entry -> new MapSqlParameterSource()
+                            .addValue("filmId", entry.getKey())
+                            .addValue("delta", entry.getValue()))
+                    .toArray(SqlParameterSource[]::new);
+            jdbc.batchUpdate(ADD_LIKES_COUNT, counterParams);
         }
+        return results;
+    }
+
+    @Transactional
+    @Override
+    public int removeLikes(List<Like> likes) {
+        Set<LikeKey> unique = new LinkedHashSet<>();
+        likes.forEach(like -> unique.add(new LikeKey(like.getFilmId(), like.getUserId())));
+        if (unique.isEmpty()) {
+            return 0;
+        }
+        List<LikeKey> keys = new ArrayList<>(unique);
+        SqlParameterSource[] deletes = keys.stream()
+                .map(key -> new MapSqlParameterSource()
+                        .addValue("filmId", key.filmId())
+                        .addValue("userId", key.userId()))
+                .toArray(SqlParameterSource[]::new);
+        int[] deleted = jdbc.batchUpdate(REMOVE_LIKE, deletes);
+
+        Map<Long, Integer> deltas = new HashMap<>();
+        int removed = 0;
+        for (int i = 0; i < deleted.length; i++) {
+            if (deleted[i] > 0) {
+                deltas.merge(keys.get(i).filmId(), -1, Integer::sum);
+                removed++;
+            }
+        }
+        if (!deltas.isEmpty()) {
+            SqlParameterSource[] counterParams = deltas.entrySet().stream()
+                    .map(entry -> new MapSqlParameterSource()
+                            .addValue("filmId", entry.getKey())
+                            .addValue("delta", entry.getValue()))
+                    .toArray(SqlParameterSource[]::new);
+            jdbc.batchUpdate(ADD_LIKES_COUNT, counterParams);
+        }
+        return removed;
     }
 
     @Override
@@ -234,6 +519,110 @@ public class JdbcFilmRepository implements FilmRepositoryInterface {
         }
     }
 
+    @Transactional
+    @Override
+    public int rebuildLikeCounters() {
+        return jdbc.update(REBUILD_LIKES_COUNTS, new MapSqlParameterSource());
+    }
+
+    @Override
+    public Map<Long, Integer> getLikesCounts() {
+        Map<Long, Integer> counts = new LinkedHashMap<>();
+        jdbc.query(GET_LIKES_COUNTS, (ResultSet rs) -> {
+            counts.put(rs.getLong("film_id"), rs.getInt("likes_count"));
+        });
+        return counts;
+    }
+
+    private Set<Long> findExistingIds(String sql, Collection<Long> ids) {
+        Set<Long> existing = new HashSet<>();
+        for (List<Long> chunk : chunks(ids)) {
+            existing.addAll(jdbc.queryForList(sql, new MapSqlParameterSource("ids", chunk), Long.class));
+        }
+        return existing;
+    }
+
+    private int[] insertIfAbsent(SqlParameterSource[] inserts) {
+        for (int attempt = 1; ; attempt++) {
+            Savepoint savepoint = jdbc.getJdbcOperations().execute((Connection connection) -> connection.setSavepoint());
+            try {
+                int[] inserted = jdbc.batchUpdate(ADD_LIKE_IF_ABSENT, inserts);
+                releaseSavepoint(savepoint, false);
+                return inserted;
+            } catch (DuplicateKeyException e) {
+                releaseSavepoint(savepoint, true);
+                if (attempt == INSERT_IF_ABSENT_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private void releaseSavepoint(Savepoint savepoint, boolean rollback) {
+        jdbc.getJdbcOperations().execute((Connection connection) -> {
+            if (rollback) {
+                connection.rollback(savepoint);
+            }
+            connection.releaseSavepoint(savepoint);
+            return null;
+        });
+    }
+
+    private List<Film> queryFilms(String joinSql, String rowsSql, MapSqlParameterSource params) {
+        if (hydration == FilmHydration.JOIN) {
+            return jdbc.query(joinSql, params, new FilmResultSetExtractor(referenceData));
+        }
+        List<Film> films = jdbc.query(rowsSql, params, filmRowsMapper);
+        if (films.isEmpty()) {
+            return films;
+        }
+        Long2ObjectOpenHashMap<Film> filmsById = indexById(films);
+        for (List<Long> chunk : chunks(films.stream().map(Film::getId).toList())) {
+            jdbc.query(GET_FILM_GENRES_BY_FILM_IDS, new MapSqlParameterSource("ids", chunk),
+                    (ResultSet rs) -> attachGenre(filmsById, rs));
+        }
+        return films;
+    }
+
+    private static Long2ObjectOpenHashMap<Film> indexById(List<Film> films) {
+        Long2ObjectOpenHashMap<Film> filmsById = new Long2ObjectOpenHashMap<>(films.size());
+        for (Film film : films) {
+            filmsById.put(film.getId().longValue(), film);
+        }
+        return filmsById;
+    }
+
+    private void attachGenre(Long2ObjectOpenHashMap<Film> filmsById, ResultSet rs) throws SQLException {
+        Film film = filmsById.get(rs.getLong("film_id"));
+        if (film != null) {
+            film.getGenres().add(resolveGenre(rs.getInt("genre_id"), referenceData));
+        }
+    }
+
+    private static List<List<Long>> chunks(Collection<Long> ids) {
+        List<Long> all = new ArrayList<>(ids);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            chunks.add(all.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, all.size())));
+        }
+        return chunks;
+    }
+
+    private NotFoundException missingLikeParticipant(Long userId, Long filmId) {
+        if (!exists(COUNT_USERS_BY_ID, userId)) {
+            return new NotFoundException(String.format(USER_NOT_FOUND, userId));
+        }
+        if (!exists(COUNT_FILMS_BY_ID, filmId)) {
+            return new NotFoundException(String.format(FILM_NOT_FOUND, filmId));
+        }
+        return null;
+    }
+
+    private boolean exists(String countSql, Long id) {
+        Integer count = jdbc.queryForObject(countSql, new MapSqlParameterSource("id", id), Integer.class);
+        return count != null && count > 0;
+    }
+
     private void updateFilmGenres(Film film) {
         if (film.getGenres() == null) {
             return;
@@ -259,31 +648,60 @@ public class JdbcFilmRepository implements FilmRepositoryInterface {
                 .distinct()
                 .toList();
 
-        String sql = "SELECT COUNT(genre_id) FROM genres WHERE genre_id IN (:ids)";
-        Integer count = jdbc.queryForObject(sql,
-                new MapSqlParameterSource("ids", genreIds),
-                Integer.class);
-
-        if (count == null || count != genreIds.size()) {
+        if (genreIds.stream().anyMatch(id -> referenceData.findGenre(id) == null)) {
             throw new NotFoundException("Один или несколько жанров не найдены");
         }
         return genreIds;
     }
 
     private void validateMpaExists(Integer mpaId) {
-        if (mpaId != null) {
-            String sql = "SELECT COUNT(mpa_id) FROM mpa WHERE mpa_id = :mpaId";
-            Integer count = jdbc.queryForObject(sql,
-                    new MapSqlParameterSource("mpaId", mpaId),
-                    Integer.class);
-
-            if (count == null || count == 0) {
-                throw new NotFoundException("Рейтинг MPA с id=" + mpaId + " не найден");
-            }
+        if (mpaId != null && referenceData.findMpa(mpaId) == null) {
+            throw new NotFoundException("Рейтинг MPA с id=" + mpaId + " не найден");
+        }
+    }
+
+    static Mpa resolveMpa(ResultSet rs, ReferenceDataCache referenceData) throws SQLException {
+        int mpaId = rs.getInt("mpa_id");
+        Mpa mpa = referenceData.findMpa(mpaId);
+        return mpa != null ? mpa : new Mpa(mpaId, null);
+    }
+
+    static Genre resolveGenre(int genreId, ReferenceDataCache referenceData) {
+        Genre genre = referenceData.findGenre(genreId);
+        return genre != null ? genre : new Genre(genreId, null);
+    }
+
+    private record LikeKey(long filmId, long userId) {
+    }
+
+    static class FilmRowsMapper implements RowMapper<Film> {
+        private final ReferenceDataCache referenceData;
+
+        FilmRowsMapper(ReferenceDataCache referenceData) {
+            this.referenceData = referenceData;
+        }
+
+        @Override
+        public Film mapRow(ResultSet rs, int rowNum) throws SQLException {
+            return Film.builder()
+                    .id(rs.getLong("film_id"))
+                    .name(rs.getString("name"))
+                    .description(rs.getString("description"))
+                    .releaseDate(rs.getObject("release_date", LocalDate.class))
+                    .duration(rs.getInt("duration"))
+                    .mpa(resolveMpa(rs, referenceData))
+                    .genres(new ArrayList<>())
+                    .build();
         }
     }
 
     static class FilmResultSetExtractor implements ResultSetExtractor<List<Film>> {
+        private final ReferenceDataCache referenceData;
+
+        FilmResultSetExtractor(ReferenceDataCache referenceData) {
+            this.referenceData = referenceData;
+        }
+
         @Override
         public List<Film> extractData(ResultSet rs) throws SQLException {
             Map<Long, Film> filmsMap = new LinkedHashMap<>();
@@ -298,10 +716,7 @@ public class JdbcFilmRepository implements FilmRepositoryInterface {
                                     .description(rs.getString("description"))
                                     .releaseDate(rs.getObject("release_date", LocalDate.class))
                                     .duration(rs.getInt("duration"))
-                                    .mpa(new Mpa(
-                                            rs.getInt("mpa_id"),
-                                            rs.getString("mpa_name")
-                                    ))
+                                    .mpa(resolveMpa(rs, referenceData))
                                     .genres(new ArrayList<>())
                                     .build();
                         } catch (SQLException e) {
@@ -310,10 +725,7 @@ public class JdbcFilmRepository implements FilmRepositoryInterface {
                     });
 
                     if (rs.getObject("genre_id") != null) {
-                        film.getGenres().add(new Genre(
-                                rs.getInt("genre_id"),
-                                rs.getString("genre_name")
-                        ));
+                        film.getGenres().add(resolveGenre(rs.getInt("genre_id"), referenceData));
                     }
                 }
             } catch (SQLException e) {
@@ -323,4 +735,42 @@ public class JdbcFilmRepository implements FilmRepositoryInterface {
             return new ArrayList<>(filmsMap.values());
         }
     }
-}
\ No newline at end of file
+
+    static class FilmStreamingHandler implements RowCallbackHandler {
+        private final Consumer<Film> consumer;
+        private final ReferenceDataCache referenceData;
+        private Film current;
+
+        FilmStreamingHandler(Consumer<Film> consumer, ReferenceDataCache referenceData) {
+            this.consumer = consumer;
+            this.referenceData = referenceData;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long filmId = rs.getLong("film_id");
+            if (current == null || current.getId() != filmId) {
+                flush();
+                current = Film.builder()
+                        .id(filmId)
+                        .name(rs.getString("name"))
+                        .description(rs.getString("description"))
+                        .releaseDate(rs.getObject("release_date", LocalDate.class))
+                        .duration(rs.getInt("duration"))
+                        .mpa(resolveMpa(rs, referenceData))
+                        .genres(new ArrayList<>())
+                        .build();
+            }
+            if (rs.getObject("genre_id") != null) {
+                current.getGenres().add(resolveGenre(rs.getInt("genre_id"), referenceData));
+            }
+        }
+
+        void flush() {
+            if (current != null) {
+                consumer.accept(current);
+                current = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package ru.yandex.practicum.filmorate.repository.reference;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.repository.genre.GenreRepositoryInterface;
+import ru.yandex.practicum.filmorate.repository.mpa.MpaRepositoryInterface;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReferenceDataCache {
+    private final GenreRepositoryInterface genreRepository;
+    private final MpaRepositoryInterface mpaRepository;
+    private volatile Snapshot snapshot;
+
+    @PostConstruct
+    public void refresh() {
+        List<Genre> genres = List.copyOf(genreRepository.getAllGenres());
+        List<Mpa> ratings = List.copyOf(mpaRepository.getAll());
+
+        Genre[] genresById = new Genre[genres.stream().mapToInt(Genre::getId).max().orElse(0) + 1];
+        genres.forEach(genre -> genresById[genre.getId()] = genre);
+        Mpa[] ratingsById = new Mpa[ratings.stream().mapToInt(Mpa::getId).max().orElse(0) + 1];
+        ratings.forEach(mpa -> ratingsById[mpa.getId()] = mpa);
+
+        long version = snapshot == null ? 1 : snapshot.version() + 1;
+        snapshot = new Snapshot(genres, genresById, ratings, ratingsById, version);
+        log.info("Справочники загружены: {} жанров, {} рейтингов", genres.size(), ratings.size());
+    }
+
+    public long getVersion() {
+        return snapshot.version();
+    }
+
+    public List<Genre> getAllGenres() {
+        return snapshot.genres();
+    }
+
+    public Genre getGenreById(int id) {
+        Genre genre = findGenre(id);
+        if (genre == null) {
+            throw new NotFoundException("Жанр не найден");
+        }
+        return genre;
+    }
+
+    public Genre findGenre(int id) {
+        Genre[] genresById = snapshot.genresById();
+        return id >= 0 && id < genresById.length ? genresById[id] : null;
+    }
+
+    public List<Mpa> getAllMpa() {
+        return snapshot.ratings();
+    }
+
+    public Mpa getMpaById(int id) {
+        Mpa mpa = findMpa(id);
+        if (mpa == null) {
+            throw new NotFoundException("Рейтинг не найден");
+        }
+        return mpa;
+    }
+
+    public Mpa findMpa(int id) {
+        Mpa[] ratingsById = snapshot.ratingsById();
+        return id >= 0 && id < ratingsById.length ? ratingsById[id] : null;
+    }
+
+    private record Snapshot(List<Genre> genres, Genre[] genresById, List<Mpa> ratings, Mpa[] ratingsById,
+                            long version) {
+    }
+}
@@ -4,19 +4,36 @@ import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.stereotype.Repository;
 import ru.yandex.practicum.filmorate.exception.InternalServerException;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.model.BatchItemStatus;
+import ru.yandex.practicum.filmorate.model.Friendship;
 import ru.yandex.practicum.filmorate.model.User;
 import ru.yandex.practicum.filmorate.repository.mappers.UserRowMapper;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Savepoint;
 import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Repository
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
@@ -33,6 +50,14 @@ public class JdbcUserRepository implements UserRepositoryInterface {
             INSERT INTO users (email, login, name, birthday)
             VALUES (:email, :login, :name, :birthday)
             """;
+    private static final String IMPORT_USER_IF_ABSENT = """
+            MERGE INTO users u
+            USING (VALUES (CAST(:email AS VARCHAR(255)), CAST(:login AS VARCHAR(50)),
+                           CAST(:name AS VARCHAR(100)), CAST(:birthday AS DATE))) AS s(email, login, name, birthday)
+            ON u.email = s.email
+            WHEN NOT MATCHED THEN INSERT (email, login, name, birthday)
+                VALUES (s.email, s.login, s.name, s.birthday)
+            """;
     private static final String UPDATE_USER = """
             UPDATE users SET
                 email = :email,
@@ -49,6 +74,22 @@ public class JdbcUserRepository implements UserRepositoryInterface {
                 name,
                 birthday
             FROM users""";
+    private static final String EXISTS_BY_EMAIL = """
+            SELECT COUNT(user_id)
+            FROM users
+            WHERE email = :email""";
+    private static final String GET_USERS_BY_IDS = """
+            SELECT
+                user_id,
+                email,
+                login,
+                name,
+                birthday
+            FROM users
+            WHERE user_id IN (:ids)""";
+    private static final String GET_ALL_EMAILS = "SELECT email FROM users";
+    private static final String GET_ALL_FRIENDSHIPS = "SELECT user_id, friend_id FROM friends";
+    private static final String GET_EXISTING_EMAILS = "SELECT email FROM users WHERE email IN (:emails)";
     private static final String ADD_FRIEND = """
             INSERT INTO friends(user_id, friend_id)
             VALUES (:userId, :friendId)
@@ -80,7 +121,19 @@ public class JdbcUserRepository implements UserRepositoryInterface {
             DELETE FROM friends
             WHERE user_id = :userId AND friend_id = :friendId""";
 
+    private static final String GET_EXISTING_USER_IDS = "SELECT user_id FROM users WHERE user_id IN (:ids)";
+    private static final String ADD_FRIEND_IF_ABSENT = """
+            MERGE INTO friends f
+            USING (VALUES (CAST(:userId AS BIGINT), CAST(:friendId AS BIGINT))) AS s(user_id, friend_id)
+            ON f.user_id = s.user_id AND f.friend_id = s.friend_id
+            WHEN NOT MATCHED THEN INSERT (user_id, friend_id) VALUES (s.user_id, s.friend_id)
+            """;
+    private static final String COUNT_USERS_BY_ID = "SELECT COUNT(user_id) FROM users WHERE user_id = :id";
+
     private static final String USER_NOT_FOUND = "Пользователь с id = %d не найден";
+    private static final int STREAM_FETCH_SIZE = 500;
+    private static final int IN_CLAUSE_CHUNK_SIZE = 1000;
+    private static final int INSERT_IF_ABSENT_ATTEMPTS = 3;
 
     private final NamedParameterJdbcOperations jdbc;
     private final UserRowMapper mapper;
@@ -109,6 +162,24 @@ public class JdbcUserRepository implements UserRepositoryInterface {
 
     }
 
+    @Transactional
+    @Override
+    public List<BatchItemStatus> importUsers(List<User> users) {
+        SqlParameterSource[] batchParams = users.stream()
+                .map(user -> new MapSqlParameterSource()
+                        .addValue("email", user.getEmail())
+                        .addValue("login", user.getLogin())
+                        .addValue("name", user.getName())
+                        .addValue("birthday", user.getBirthday()))
+                .toArray(SqlParameterSource[]::new);
+        int[] inserted = insertIfAbsent(IMPORT_USER_IF_ABSENT, batchParams);
+        List<BatchItemStatus> results = new ArrayList<>(inserted.length);
+        for (int rows : inserted) {
+            results.add(rows > 0 ? BatchItemStatus.ADDED : BatchItemStatus.DUPLICATE);
+        }
+        return results;
+    }
+
     @Override
     public User updateUser(User user) {
         MapSqlParameterSource params = new MapSqlParameterSource()
@@ -133,6 +204,16 @@ public class JdbcUserRepository implements UserRepositoryInterface {
         return jdbc.query(GET_ALL_USERS, mapper);
     }
 
+    @Override
+    public void streamAllUsers(Consumer<User> consumer) {
+        jdbc.getJdbcOperations().query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(GET_ALL_USERS,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(STREAM_FETCH_SIZE);
+            return statement;
+        }, (ResultSet rs) -> consumer.accept(mapper.mapRow(rs, rs.getRow())));
+    }
+
     @Override
     public Optional<User> getUserById(Long id) {
         MapSqlParameterSource params = new MapSqlParameterSource();
@@ -145,12 +226,76 @@ public class JdbcUserRepository implements UserRepositoryInterface {
         }
     }
 
+    @Override
+    public List<User> getUsersByIds(List<Long> ids) {
+        Map<Long, User> usersById = new HashMap<>();
+        for (List<Long> chunk : chunks(new HashSet<>(ids))) {
+            jdbc.query(GET_USERS_BY_IDS, new MapSqlParameterSource("ids", chunk), mapper)
+                    .forEach(user -> usersById.put(user.getId(), user));
+        }
+        return ids.stream()
+                .map(usersById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    public Set<Long> findExistingUserIds(Collection<Long> ids) {
+        Set<Long> existing = new HashSet<>();
+        for (List<Long> chunk : chunks(ids)) {
+            existing.addAll(jdbc.queryForList(GET_EXISTING_USER_IDS,
+                    new MapSqlParameterSource("ids", chunk), Long.class));
+        }
+        return existing;
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        Integer count = jdbc.queryForObject(EXISTS_BY_EMAIL, new MapSqlParameterSource("email", email), Integer.class);
+        return count != null && count > 0;
+    }
+
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        Set<String> existing = new HashSet<>();
+        for (List<String> chunk : chunks(emails)) {
+            existing.addAll(jdbc.queryForList(GET_EXISTING_EMAILS,
+                    new MapSqlParameterSource("emails", chunk), String.class));
+        }
+        return existing;
+    }
+
+    @Override
+    public void streamAllEmails(Consumer<String> consumer) {
+        jdbc.getJdbcOperations().query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(GET_ALL_EMAILS,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(STREAM_FETCH_SIZE);
+            return statement;
+        }, (ResultSet rs) -> consumer.accept(rs.getString("email")));
+    }
+
+    @Override
+    public void streamAllFriendships(Consumer<Friendship> consumer) {
+        jdbc.getJdbcOperations().query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(GET_ALL_FRIENDSHIPS,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(STREAM_FETCH_SIZE);
+            return statement;
+        }, (ResultSet rs) -> consumer.accept(new Friendship(rs.getLong("user_id"), rs.getLong("friend_id"))));
+    }
+
     @Override
     public void addFriend(Long userId, Long friendId) {
         try {
             jdbc.update(ADD_FRIEND, new MapSqlParameterSource()
                     .addValue("userId", userId, Types.BIGINT)
                     .addValue("friendId", friendId, Types.BIGINT));
+        } catch (DuplicateKeyException e) {
+            throw new InternalServerException("Не удалось добавить друга");
+        } catch (DataIntegrityViolationException e) {
+            requireUsersExist(userId, friendId);
+            throw new InternalServerException("Не удалось добавить друга");
         } catch (DataAccessException e) {
             throw new InternalServerException("Не удалось добавить друга");
         }
@@ -158,10 +303,53 @@ public class JdbcUserRepository implements UserRepositoryInterface {
 
     @Transactional
     @Override
-    public void deleteFriend(Long userId, Long friendId) {
-        jdbc.update(DELETE_FRIEND, new MapSqlParameterSource()
+    public int deleteFriend(Long userId, Long friendId) {
+        int deletedRows = jdbc.update(DELETE_FRIEND, new MapSqlParameterSource()
                 .addValue("userId", userId, Types.BIGINT)
                 .addValue("friendId", friendId, Types.BIGINT));
+        if (deletedRows == 0) {
+            requireUsersExist(userId, friendId);
+        }
+        return deletedRows;
+    }
+
+    @Transactional
+    @Override
+    public List<BatchItemStatus> addFriends(List<Friendship> friendships) {
+        Set<Long> allIds = new HashSet<>();
+        friendships.forEach(friendship -> {
+            allIds.add(friendship.getUserId());
+            allIds.add(friendship.getFriendId());
+        });
+        Set<Long> existingUsers = findExistingUserIds(allIds);
+
+        List<BatchItemStatus> results = new ArrayList<>(friendships.size());
+        List<Integer> positions = new ArrayList<>();
+        for (Friendship friendship : friendships) {
+            if (!existingUsers.contains(friendship.getUserId()) || !existingUsers.contains(friendship.getFriendId())) {
+                results.add(BatchItemStatus.NOT_FOUND);
+            } else {
+                positions.add(results.size());
+                results.add(BatchItemStatus.DUPLICATE);
+            }
+        }
+        if (positions.isEmpty()) {
+            return results;
+        }
+
+        SqlParameterSource[] inserts = positions.stream()
+                .map(friendships::get)
+                .map(friendship -> new MapSqlParameterSource()
+                        .addValue("userId", friendship.getUserId(), Types.BIGINT)
+                        .addValue("friendId", friendship.getFriendId(), Types.BIGINT))
+                .toArray(SqlParameterSource[]::new);
+        int[] inserted = insertIfAbsent(ADD_FRIEND_IF_ABSENT, inserts);
+        for (int i = 0; i < inserted.length; i++) {
+            if (inserted[i] > 0) {
+                results.set(positions.get(i), BatchItemStatus.ADDED);
+            }
+        }
+        return results;
     }
 
     @Override
@@ -177,4 +365,48 @@ public class JdbcUserRepository implements UserRepositoryInterface {
     public List<User> getFriendsList(Long userId) {
         return jdbc.query(GET_FRIENDS_LIST, new MapSqlParameterSource("userId", userId), mapper);
     }
+
+    private int[] insertIfAbsent(String sql, SqlParameterSource[] inserts) {
+        for (int attempt = 1; ; attempt++) {
+            Savepoint savepoint = jdbc.getJdbcOperations().execute((Connection connection) -> connection.setSavepoint());
+            try {
+                int[] inserted = jdbc.batchUpdate(sql, inserts);
+                releaseSavepoint(savepoint, false);
+                return inserted;
+            } catch (DuplicateKeyException e) {
+                releaseSavepoint(savepoint, true);
+                if (attempt == INSERT_IF_ABSENT_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private void releaseSavepoint(Savepoint savepoint, boolean rollback) {
+        jdbc.getJdbcOperations().execute((Connection connection) -> {
+            if (rollback) {
+                connection.rollback(savepoint);
+            }
+            connection.releaseSavepoint(savepoint);
+            return null;
+        });
+    }
+
+    private static <T> List<List<T>> chunks(Collection<T> values) {
+        List<T> all = new ArrayList<>(values);
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            chunks.add(all.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, all.size())));
+        }
+        return chunks;
+    }
+
+    private void requireUsersExist(Long... ids) {
+        for (Long id : ids) {
+            Integer count = jdbc.queryForObject(COUNT_USERS_BY_ID, new MapSqlParameterSource("id", id), Integer.class);
+            if (count == null || count == 0) {
+                throw new NotFoundException(String.format(USER_NOT_FOUND, id));
+            }
+        }
+    }
 }
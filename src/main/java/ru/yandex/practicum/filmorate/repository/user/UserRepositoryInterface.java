@@ -1,9 +1,14 @@
 package ru.yandex.practicum.filmorate.repository.user;
 
+import ru.yandex.practicum.filmorate.model.BatchItemStatus;
+import ru.yandex.practicum.filmorate.model.Friendship;
 import ru.yandex.practicum.filmorate.model.User;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface UserRepositoryInterface {
 
@@ -11,13 +16,31 @@ public interface UserRepositoryInterface {
 
     User updateUser(User user);
 
+    List<BatchItemStatus> importUsers(List<User> users);
+
     List<User> getAllUsers();
 
+    void streamAllUsers(Consumer<User> consumer);
+
     Optional<User> getUserById(Long id);
 
+    List<User> getUsersByIds(List<Long> ids);
+
+    Set<Long> findExistingUserIds(Collection<Long> ids);
+
+    boolean existsByEmail(String email);
+
+    Set<String> findExistingEmails(Collection<String> emails);
+
+    void streamAllEmails(Consumer<String> consumer);
+
+    void streamAllFriendships(Consumer<Friendship> consumer);
+
     void addFriend(Long userId, Long friendId);
 
-    void deleteFriend(Long userId, Long friendId);
+    int deleteFriend(Long userId, Long friendId);
+
+    List<BatchItemStatus> addFriends(List<Friendship> friendships);
 
     List<User> getCommonFriends(Long userId, Long friendId);
 
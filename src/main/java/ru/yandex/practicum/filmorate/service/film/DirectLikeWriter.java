@@ -0,0 +1,41 @@
+package ru.yandex.practicum.filmorate.service.film;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.BatchItemStatus;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.repository.film.FilmRepositoryInterface;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "filmorate.likes.write-behind.enabled", havingValue = "false", matchIfMissing = true)
+public class DirectLikeWriter implements LikeWriter {
+    private final FilmRepositoryInterface filmRepository;
+
+    @Override
+    public void addLike(long userId, long filmId, LikeListener listener) {
+        filmRepository.addLike(userId, filmId);
+        listener.likeAdded(filmId, userId);
+    }
+
+    @Override
+    public void removeLike(long userId, long filmId, LikeListener listener) {
+        filmRepository.removeLike(userId, filmId);
+        listener.likeRemoved(filmId, userId);
+    }
+
+    @Override
+    public List<BatchItemStatus> addLikes(List<Like> likes, LikeListener listener) {
+        List<BatchItemStatus> results = filmRepository.addLikes(likes);
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == BatchItemStatus.ADDED) {
+                Like like = likes.get(i);
+                listener.likeAdded(like.getFilmId(), like.getUserId());
+            }
+        }
+        return results;
+    }
+}
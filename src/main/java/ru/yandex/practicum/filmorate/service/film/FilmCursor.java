@@ -0,0 +1,30 @@
+package ru.yandex.practicum.filmorate.service.film;
+
+import ru.yandex.practicum.filmorate.exception.ConditionsNotMetException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+final class FilmCursor {
+    private static final String PREFIX = "film:";
+
+    private FilmCursor() {
+    }
+
+    static String encode(Long lastFilmId) {
+        byte[] raw = (PREFIX + lastFilmId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    static Long decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new ConditionsNotMetException("Некорректный курсор");
+            }
+            return Long.parseLong(raw.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new ConditionsNotMetException("Некорректный курсор");
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package ru.yandex.practicum.filmorate.service.film;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.dto.ImportResultDto;
+import ru.yandex.practicum.filmorate.exception.ConditionsNotMetException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.repository.film.FilmRepositoryInterface;
+import ru.yandex.practicum.filmorate.repository.reference.ReferenceDataCache;
+import ru.yandex.practicum.filmorate.service.importing.NdjsonReader;
+import ru.yandex.practicum.filmorate.service.recommendation.FilmSimilarityIndex;
+import ru.yandex.practicum.filmorate.service.version.VersionStamps;
+import ru.yandex.practicum.filmorate.service.validation.ValidationService;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Service
+public class FilmImportService {
+    private static final int MAX_NAME_LENGTH = 100;
+    private final FilmRepositoryInterface filmRepository;
+    private final ValidationService validationService;
+    private final ReferenceDataCache referenceData;
+    private final FilmPopularityIndex popularityIndex;
+    private final FilmSimilarityIndex similarityIndex;
+    private final VersionStamps versionStamps;
+    private final NdjsonReader ndjsonReader;
+    private final int chunkSize;
+
+    public FilmImportService(FilmRepositoryInterface filmRepository,
+                             ValidationService validationService,
+                             ReferenceDataCache referenceData,
+                             FilmPopularityIndex popularityIndex,
+                             FilmSimilarityIndex similarityIndex,
+                             VersionStamps versionStamps,
+                             NdjsonReader ndjsonReader,
+                             @Value("${filmorate.film-import.chunk-size:5000}") int chunkSize) {
+        this.filmRepository = filmRepository;
+        this.validationService = validationService;
+        this.referenceData = referenceData;
+        this.popularityIndex = popularityIndex;
+        this.similarityIndex = similarityIndex;
+        this.versionStamps = versionStamps;
+        this.ndjsonReader = ndjsonReader;
+        this.chunkSize = chunkSize;
+    }
+
+    public ImportResultDto importFilms(InputStream input) {
+        long startedAt = System.nanoTime();
+        List<Film> chunk = new ArrayList<>(chunkSize);
+        long[] counters = new long[2];
+
+        ndjsonReader.read(input, Film.class, film -> {
+            if (!isValid(film)) {
+                counters[1]++;
+                return;
+            }
+            chunk.add(film);
+            if (chunk.size() == chunkSize) {
+                counters[0] += flush(chunk);
+                log.info("Импортировано {} фильмов", counters[0]);
+            }
+        }, () -> counters[1]++);
+        counters[0] += flush(chunk);
+
+        ImportResultDto result = ImportResultDto.of(counters[0], counters[1], startedAt);
+        log.info("Импорт фильмов завершён: принято {}, отклонено {}, {} строк/с",
+                result.getAccepted(), result.getRejected(), result.getRowsPerSecond());
+        return result;
+    }
+
+    private int flush(List<Film> chunk) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        filmRepository.importFilms(chunk);
+        chunk.forEach(film -> {
+            popularityIndex.filmAdded(film.getId());
+            similarityIndex.filmChanged(film.getId(), film.getGenres());
+        });
+        versionStamps.filmAdded();
+        int size = chunk.size();
+        chunk.clear();
+        return size;
+    }
+
+    private boolean isValid(Film film) {
+        if (film.getReleaseDate() == null || (film.getName() != null && film.getName().length() > MAX_NAME_LENGTH)) {
+            return false;
+        }
+        try {
+            validationService.validateCreate(film);
+        } catch (ConditionsNotMetException e) {
+            return false;
+        }
+        if (!film.hasMpa() || referenceData.findMpa(film.getMpa().getId()) == null) {
+            return false;
+        }
+        if (film.getGenres() != null) {
+            for (Genre genre : film.getGenres()) {
+                if (genre == null || genre.getId() == null || referenceData.findGenre(genre.getId()) == null) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
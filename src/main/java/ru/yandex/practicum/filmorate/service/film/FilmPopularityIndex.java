@@ -0,0 +1,89 @@
+package ru.yandex.practicum.filmorate.service.film;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.repository.film.FilmRepositoryInterface;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+@Slf4j
+@Component
+@DependsOn("filmStatsReconciliationJob")
+@RequiredArgsConstructor
+public class FilmPopularityIndex {
+    private final FilmRepositoryInterface filmRepository;
+    private final ConcurrentSkipListSet<Entry> ranking = new ConcurrentSkipListSet<>();
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void rebuild() {
+        Map<Long, Integer> counts = filmRepository.getLikesCounts();
+        ranking.clear();
+        entries.clear();
+        counts.forEach((filmId, likes) -> {
+            Entry entry = new Entry(likes, filmId);
+            entries.put(filmId, entry);
+            ranking.add(entry);
+        });
+        log.info("Индекс популярности построен для {} фильмов", entries.size());
+    }
+
+    public void filmAdded(long filmId) {
+        entries.computeIfAbsent(filmId, id -> {
+            Entry entry = new Entry(0, id);
+            ranking.add(entry);
+            return entry;
+        });
+    }
+
+    public void likeAdded(long filmId) {
+        shift(filmId, 1);
+    }
+
+    public void likeRemoved(long filmId) {
+        shift(filmId, -1);
+    }
+
+    public List<Long> top(int count) {
+        List<Long> result = new ArrayList<>(Math.min(count, entries.size()));
+        Set<Long> seen = new HashSet<>();
+        for (Entry entry : ranking) {
+            if (result.size() == count) {
+                break;
+            }
+            if (seen.add(entry.filmId())) {
+                result.add(entry.filmId());
+            }
+        }
+        return result;
+    }
+
+    private void shift(long filmId, int delta) {
+        entries.compute(filmId, (id, current) -> {
+            int likes = current == null ? 0 : current.likes();
+            Entry updated = new Entry(Math.max(0, likes + delta), id);
+            ranking.add(updated);
+            if (current != null && !current.equals(updated)) {
+                ranking.remove(current);
+            }
+            return updated;
+        });
+    }
+
+    private record Entry(int likes, long filmId) implements Comparable<Entry> {
+        @Override
+        public int compareTo(Entry other) {
+            int byLikes = Integer.compare(other.likes, likes);
+            return byLikes != 0 ? byLikes : Long.compare(filmId, other.filmId);
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package ru.yandex.practicum.filmorate.service.film;
 
+import ru.yandex.practicum.filmorate.dto.BatchResultDto;
 import ru.yandex.practicum.filmorate.dto.FilmDto;
+import ru.yandex.practicum.filmorate.dto.FilmPageDto;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Like;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface FilmService {
     FilmDto saveFilm(Film film);
@@ -14,9 +18,17 @@ public interface FilmService {
 
     void removeLike(Long userId, Long filmId);
 
+    BatchResultDto addLikes(List<Like> likes);
+
     List<FilmDto> getTheMostPopularFilms(Integer count);
 
     FilmDto getFilmById(Long filmId);
 
+    boolean existsFilm(Long filmId);
+
     List<FilmDto> getAllFilms();
+
+    FilmPageDto getFilmsPage(Long afterId, String cursor, Integer limit);
+
+    void streamAllFilms(Consumer<FilmDto> consumer);
 }
\ No newline at end of file
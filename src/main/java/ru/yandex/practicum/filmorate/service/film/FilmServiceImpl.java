@@ -1,30 +1,65 @@
 package ru.yandex.practicum.filmorate.service.film;
 
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.yandex.practicum.filmorate.dto.BatchResultDto;
 import ru.yandex.practicum.filmorate.dto.FilmDto;
+import ru.yandex.practicum.filmorate.dto.FilmPageDto;
+import ru.yandex.practicum.filmorate.exception.ConditionsNotMetException;
 import ru.yandex.practicum.filmorate.exception.InternalServerException;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
 import ru.yandex.practicum.filmorate.mapper.FilmMapper;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Like;
 import ru.yandex.practicum.filmorate.repository.film.FilmRepositoryInterface;
-import ru.yandex.practicum.filmorate.repository.user.UserRepositoryInterface;
+import ru.yandex.practicum.filmorate.service.recommendation.FilmSimilarityIndex;
+import ru.yandex.practicum.filmorate.service.version.VersionStamps;
 
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 public class FilmServiceImpl implements FilmService {
     private final FilmRepositoryInterface filmRepository;
-    private final UserRepositoryInterface userRepository;
     private final FilmMapper mapper;
+    private final FilmPopularityIndex popularityIndex;
+    private final List<LikeListener> likeListeners;
+    private final FilmSimilarityIndex similarityIndex;
+    private final LikeWriter likeWriter;
+    private final VersionStamps versionStamps;
+    private final int maxBatchSize;
+    private final LikeListener inMemoryLikes = new InMemoryLikes();
     private static final String FILM_NOT_FOUND = "Фильм с id = %d не найден";
-    private static final String USER_NOT_FOUND = "Пользователь с id = %d не найден";
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int DEFAULT_POPULAR_FILMS_LIMIT = 10;
+    private static final int MAX_POPULAR_FILMS_LIMIT = 1000;
+
+    public FilmServiceImpl(FilmRepositoryInterface filmRepository,
+                           FilmMapper mapper,
+                           FilmPopularityIndex popularityIndex,
+                           List<LikeListener> likeListeners,
+                           FilmSimilarityIndex similarityIndex,
+                           LikeWriter likeWriter,
+                           VersionStamps versionStamps,
+                           @Value("${filmorate.likes.batch.max-size:100000}") int maxBatchSize) {
+        this.filmRepository = filmRepository;
+        this.mapper = mapper;
+        this.popularityIndex = popularityIndex;
+        this.likeListeners = likeListeners;
+        this.similarityIndex = similarityIndex;
+        this.likeWriter = likeWriter;
+        this.versionStamps = versionStamps;
+        this.maxBatchSize = maxBatchSize;
+    }
 
     @Override
     public FilmDto saveFilm(Film film) {
         Film savedFilm = filmRepository.saveFilm(film);
+        popularityIndex.filmAdded(savedFilm.getId());
+        similarityIndex.filmChanged(savedFilm.getId(), savedFilm.getGenres());
+        versionStamps.filmAdded();
         return mapper.toDto(savedFilm);
     }
 
@@ -33,35 +68,41 @@ public class FilmServiceImpl implements FilmService {
        filmRepository.getFilmById(film.getId())
                .orElseThrow(() -> new InternalServerException(String.format(FILM_NOT_FOUND, film.getId())));
         Film updatedFilm = filmRepository.updateFilm(film);
+        similarityIndex.filmChanged(updatedFilm.getId(), updatedFilm.getGenres());
+        versionStamps.filmUpdated(updatedFilm.getId());
         return mapper.toDto(updatedFilm);
     }
 
     @Override
     public void addLike(Long userId, Long filmId) {
-        userRepository.getUserById(userId)
-                .orElseThrow(() -> new NotFoundException(String.format(USER_NOT_FOUND, userId)));
-        filmRepository.getFilmById(filmId)
-                .orElseThrow(() -> new NotFoundException(String.format(FILM_NOT_FOUND, filmId)));
-        filmRepository.addLike(userId, filmId);
+        likeWriter.addLike(userId, filmId, inMemoryLikes);
     }
 
     @Override
     public void removeLike(Long userId, Long filmId) {
-        userRepository.getUserById(userId)
-                .orElseThrow(() -> new NotFoundException(String.format(USER_NOT_FOUND, userId)));
-        filmRepository.getFilmById(filmId)
-                .orElseThrow(() -> new NotFoundException(String.format(FILM_NOT_FOUND, filmId)));
-        filmRepository.removeLike(userId, filmId);
+        likeWriter.removeLike(userId, filmId, inMemoryLikes);
+    }
+
+    @Override
+    public BatchResultDto addLikes(List<Like> likes) {
+        if (likes.size() > maxBatchSize) {
+            throw new ConditionsNotMetException("Размер пакета не должен превышать " + maxBatchSize);
+        }
+        return BatchResultDto.of(likeWriter.addLikes(likes, inMemoryLikes));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<FilmDto> getTheMostPopularFilms(Integer count) {
-        return filmRepository.getTheMostPopularFilms(count).stream()
+        int limit = (count == null || count <= 0) ? DEFAULT_POPULAR_FILMS_LIMIT
+                : Math.min(count, MAX_POPULAR_FILMS_LIMIT);
+        return filmRepository.getFilmsByIds(popularityIndex.top(limit)).stream()
                 .map(mapper::toDto)
                 .collect(Collectors.toList());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public FilmDto getFilmById(Long filmId) {
         Film filmFromRepository = filmRepository.getFilmById(filmId)
                 .orElseThrow(() -> new NotFoundException(String.format(FILM_NOT_FOUND, filmId)));
@@ -69,9 +110,57 @@ public class FilmServiceImpl implements FilmService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public boolean existsFilm(Long filmId) {
+        return filmRepository.getFilmById(filmId).isPresent();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<FilmDto> getAllFilms() {
         return filmRepository.getAllFilms().stream()
                 .map(mapper::toDto)
                 .collect(Collectors.toList());
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public FilmPageDto getFilmsPage(Long afterId, String cursor, Integer limit) {
+        if (limit == null || limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new ConditionsNotMetException("Размер страницы должен быть от 1 до " + MAX_PAGE_SIZE);
+        }
+        Long startAfter = cursor != null ? FilmCursor.decode(cursor) : afterId;
+
+        List<Film> films = filmRepository.getFilmsPage(startAfter, limit + 1);
+        boolean hasNext = films.size() > limit;
+        List<FilmDto> page = films.stream()
+                .limit(limit)
+                .map(mapper::toDto)
+                .collect(Collectors.toList());
+
+        return FilmPageDto.builder()
+                .films(page)
+                .next(hasNext ? FilmCursor.encode(page.getLast().getId()) : null)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllFilms(Consumer<FilmDto> consumer) {
+        filmRepository.streamAllFilms(film -> consumer.accept(mapper.toDto(film)));
+    }
+
+    private final class InMemoryLikes implements LikeListener {
+        @Override
+        public void likeAdded(long filmId, long userId) {
+            popularityIndex.likeAdded(filmId);
+            likeListeners.forEach(listener -> listener.likeAdded(filmId, userId));
+        }
+
+        @Override
+        public void likeRemoved(long filmId, long userId) {
+            popularityIndex.likeRemoved(filmId);
+            likeListeners.forEach(listener -> listener.likeRemoved(filmId, userId));
+        }
+    }
 }
@@ -0,0 +1,26 @@
+package ru.yandex.practicum.filmorate.service.film;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.repository.film.FilmRepositoryInterface;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FilmStatsReconciliationJob {
+    private final FilmRepositoryInterface filmRepository;
+
+    @PostConstruct
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+
+    @Scheduled(cron = "${filmorate.film-stats.reconcile-cron:-}")
+    public void reconcile() {
+        int films = filmRepository.rebuildLikeCounters();
+        log.info("Счётчики лайков пересчитаны для {} фильмов", films);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.yandex.practicum.filmorate.service.film;
+
+public interface LikeListener {
+    void likeAdded(long filmId, long userId);
+
+    void likeRemoved(long filmId, long userId);
+}
@@ -0,0 +1,14 @@
+package ru.yandex.practicum.filmorate.service.film;
+
+import ru.yandex.practicum.filmorate.model.BatchItemStatus;
+import ru.yandex.practicum.filmorate.model.Like;
+
+import java.util.List;
+
+public interface LikeWriter {
+    void addLike(long userId, long filmId, LikeListener listener);
+
+    void removeLike(long userId, long filmId, LikeListener listener);
+
+    List<BatchItemStatus> addLikes(List<Like> likes, LikeListener listener);
+}
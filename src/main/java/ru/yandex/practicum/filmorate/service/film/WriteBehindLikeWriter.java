@@ -0,0 +1,399 @@
+package ru.yandex.practicum.filmorate.service.film;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.yandex.practicum.filmorate.exception.DuplicatedDataException;
+import ru.yandex.practicum.filmorate.exception.InternalServerException;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.model.BatchItemStatus;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.repository.film.FilmRepositoryInterface;
+import ru.yandex.practicum.filmorate.repository.user.UserRepositoryInterface;
+import ru.yandex.practicum.filmorate.service.recommendation.LikeMatrix;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "filmorate.likes.write-behind.enabled", havingValue = "true")
+public class WriteBehindLikeWriter implements LikeWriter, SmartLifecycle {
+    private static final String USER_NOT_FOUND = "Пользователь с id = %d не найден";
+    private static final String FILM_NOT_FOUND = "Фильм с id = %d не найден";
+    private static final int STRIPES = 64;
+
+    private final FilmRepositoryInterface filmRepository;
+    private final UserRepositoryInterface userRepository;
+    private final LikeMatrix likeMatrix;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<LikeCommand> queue;
+    private final int maxBatch;
+    private final long flushIntervalNanos;
+    private final long offerTimeoutNanos;
+    private final int maxRetries;
+    private final long retryBackoffNanos;
+    private final Object[] stripes = new Object[STRIPES];
+    private final ReadWriteLock gate = new ReentrantReadWriteLock();
+    private final Set<Long> knownFilms = ConcurrentHashMap.newKeySet();
+    private final Set<Long> knownUsers = ConcurrentHashMap.newKeySet();
+    private final Counter commands;
+    private final Counter coalesced;
+    private final Counter retries;
+    private final Counter dropped;
+    private final Timer flushes;
+    private volatile boolean running;
+    private Thread writer;
+
+    public WriteBehindLikeWriter(FilmRepositoryInterface filmRepository,
+                                 UserRepositoryInterface userRepository,
+                                 LikeMatrix likeMatrix,
+                                 TransactionTemplate transactionTemplate,
+                                 MeterRegistry registry,
+                                 @Value("${filmorate.likes.write-behind.capacity:10000}") int capacity,
+                                 @Value("${filmorate.likes.write-behind.max-batch:1000}") int maxBatch,
+                                 @Value("${filmorate.likes.write-behind.flush-interval:50ms}") Duration flushInterval,
+                                 @Value("${filmorate.likes.write-behind.offer-timeout:1s}") Duration offerTimeout,
+                                 @Value("${filmorate.likes.write-behind.max-retries:5}") int maxRetries,
+                                 @Value("${filmorate.likes.write-behind.retry-backoff:100ms}") Duration retryBackoff) {
+        this.filmRepository = filmRepository;
+        this.userRepository = userRepository;
+        this.likeMatrix = likeMatrix;
+        this.transactionTemplate = transactionTemplate;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatch = maxBatch;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.offerTimeoutNanos = offerTimeout.toNanos();
+        this.maxRetries = maxRetries;
+        this.retryBackoffNanos = retryBackoff.toNanos();
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+        this.commands = registry.counter("filmorate.likes.write-behind.commands");
+        this.coalesced = registry.counter("filmorate.likes.write-behind.coalesced");
+        this.retries = registry.counter("filmorate.likes.write-behind.retries");
+        this.dropped = registry.counter("filmorate.likes.write-behind.dropped");
+        this.flushes = Timer.builder("filmorate.likes.write-behind.flushes")
+                .publishPercentileHistogram()
+                .register(registry);
+        Gauge.builder("filmorate.likes.write-behind.queue.size", queue, BlockingQueue::size).register(registry);
+    }
+
+    @Override
+    public void addLike(long userId, long filmId, LikeListener listener) {
+        requireParticipants(userId, filmId);
+        enterGate();
+        try {
+            synchronized (stripe(filmId, userId)) {
+                if (likeMatrix.contains(filmId, userId)) {
+                    throw new DuplicatedDataException("Пользователь уже поставил лайк этому фильму");
+                }
+                enqueue(new LikeCommand(filmId, userId, true, listener));
+                listener.likeAdded(filmId, userId);
+            }
+        } finally {
+            gate.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void removeLike(long userId, long filmId, LikeListener listener) {
+        requireParticipants(userId, filmId);
+        enterGate();
+        try {
+            synchronized (stripe(filmId, userId)) {
+                if (!likeMatrix.contains(filmId, userId)) {
+                    throw new NotFoundException("Лайк не найден");
+                }
+                enqueue(new LikeCommand(filmId, userId, false, listener));
+                listener.likeRemoved(filmId, userId);
+            }
+        } finally {
+            gate.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<BatchItemStatus> addLikes(List<Like> likes, LikeListener listener) {
+        confirm(knownFilms, likes.stream().map(Like::getFilmId).toList(), filmRepository::findExistingFilmIds);
+        confirm(knownUsers, likes.stream().map(Like::getUserId).toList(), userRepository::findExistingUserIds);
+        List<BatchItemStatus> results = new ArrayList<>(likes.size());
+        enterGate();
+        try {
+            for (Like like : likes) {
+                long filmId = like.getFilmId();
+                long userId = like.getUserId();
+                if (!knownFilms.contains(filmId) || !knownUsers.contains(userId)) {
+                    results.add(BatchItemStatus.NOT_FOUND);
+                    continue;
+                }
+                synchronized (stripe(filmId, userId)) {
+                    if (likeMatrix.contains(filmId, userId)) {
+                        results.add(BatchItemStatus.DUPLICATE);
+                    } else {
+                        enqueue(new LikeCommand(filmId, userId, true, listener));
+                        listener.likeAdded(filmId, userId);
+                        results.add(BatchItemStatus.ADDED);
+                    }
+                }
+            }
+        } finally {
+            gate.readLock().unlock();
+        }
+        return results;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = Thread.ofPlatform().name("like-writer").start(this::runWriter);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Очередь лайков остановлена");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void requireParticipants(long userId, long filmId) {
+        if (!confirm(knownUsers, List.of(userId), userRepository::findExistingUserIds).contains(userId)) {
+            throw new NotFoundException(String.format(USER_NOT_FOUND, userId));
+        }
+        if (!confirm(knownFilms, List.of(filmId), filmRepository::findExistingFilmIds).contains(filmId)) {
+            throw new NotFoundException(String.format(FILM_NOT_FOUND, filmId));
+        }
+    }
+
+    private static Set<Long> confirm(Set<Long> known, Collection<Long> ids,
+                                     Function<Collection<Long>, Set<Long>> findExisting) {
+        Set<Long> unknown = new HashSet<>();
+        for (Long id : ids) {
+            if (!known.contains(id)) {
+                unknown.add(id);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            known.addAll(findExisting.apply(unknown));
+        }
+        return known;
+    }
+
+    private Object stripe(long filmId, long userId) {
+        return stripes[Math.floorMod(Long.hashCode(filmId * 31 + userId), STRIPES)];
+    }
+
+    private void enterGate() {
+        try {
+            if (!gate.readLock().tryLock(offerTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new InternalServerException("Запись лайков в базу временно приостановлена");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InternalServerException("Ожидание записи лайков прервано");
+        }
+    }
+
+    private void enqueue(LikeCommand command) {
+        if (!running) {
+            throw new InternalServerException("Очередь лайков остановлена");
+        }
+        try {
+            if (!queue.offer(command, offerTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new InternalServerException("Очередь лайков переполнена");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InternalServerException("Ожидание места в очереди лайков прервано");
+        }
+        commands.increment();
+    }
+
+    private void runWriter() {
+        List<LikeCommand> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                queue.drainTo(batch);
+                flush(batch);
+                return;
+            }
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    private void collect(List<LikeCommand> batch) throws InterruptedException {
+        LikeCommand first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < maxBatch) {
+            queue.drainTo(batch, maxBatch - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatch || remaining <= 0) {
+                return;
+            }
+            LikeCommand next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<LikeCommand> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Map<LikeKey, LikeCommand> net = coalesce(batch);
+        coalesced.increment(batch.size() - net.size());
+        if (net.isEmpty()) {
+            return;
+        }
+        List<Like> added = new ArrayList<>();
+        List<Like> removed = new ArrayList<>();
+        net.values().forEach(command -> (command.liked() ? added : removed)
+                .add(new Like(command.filmId(), command.userId())));
+        RuntimeException failure = write(added, removed);
+        if (failure == null) {
+            return;
+        }
+        gate.writeLock().lock();
+        try {
+            long backoffNanos = retryBackoffNanos;
+            for (int attempt = 1; attempt <= maxRetries && failure != null; attempt++) {
+                log.warn("Не удалось записать {} изменений лайков, повтор {} из {}",
+                        net.size(), attempt, maxRetries, failure);
+                if (!pause(backoffNanos)) {
+                    break;
+                }
+                retries.increment();
+                failure = write(added, removed);
+                backoffNanos *= 2;
+            }
+            if (failure != null) {
+                log.error("Запись {} изменений лайков отменена после {} повторов", net.size(), maxRetries, failure);
+                revert(net.values());
+            }
+        } finally {
+            gate.writeLock().unlock();
+        }
+    }
+
+    private RuntimeException write(List<Like> added, List<Like> removed) {
+        long startedAt = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!added.isEmpty()) {
+                    filmRepository.addLikes(added);
+                }
+                if (!removed.isEmpty()) {
+                    filmRepository.removeLikes(removed);
+                }
+            });
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        } finally {
+            flushes.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static boolean pause(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void revert(Collection<LikeCommand> failed) {
+        Map<LikeKey, Boolean> latest = new HashMap<>();
+        failed.forEach(command -> latest.put(new LikeKey(command.filmId(), command.userId()), command.liked()));
+        List<LikeCommand> pending = new ArrayList<>();
+        queue.drainTo(pending);
+        List<LikeCommand> kept = new ArrayList<>(pending.size());
+        for (LikeCommand command : pending) {
+            LikeKey key = new LikeKey(command.filmId(), command.userId());
+            if (latest.containsKey(key)) {
+                latest.put(key, command.liked());
+            } else {
+                kept.add(command);
+            }
+        }
+        queue.addAll(kept);
+        for (LikeCommand command : failed) {
+            if (latest.get(new LikeKey(command.filmId(), command.userId())) != command.liked()) {
+                continue;
+            }
+            if (command.liked()) {
+                command.listener().likeRemoved(command.filmId(), command.userId());
+            } else {
+                command.listener().likeAdded(command.filmId(), command.userId());
+            }
+        }
+        dropped.increment(failed.size() + pending.size() - kept.size());
+    }
+
+    static Map<LikeKey, LikeCommand> coalesce(List<LikeCommand> batch) {
+        Map<LikeKey, LikeCommand> net = new LinkedHashMap<>();
+        for (LikeCommand command : batch) {
+            LikeKey key = new LikeKey(command.filmId(), command.userId());
+            LikeCommand pending = net.get(key);
+            if (pending == null) {
+                net.put(key, command);
+            } else if (pending.liked() != command.liked()) {
+                net.remove(key);
+            }
+        }
+        return net;
+    }
+
+    record LikeCommand(long filmId, long userId, boolean liked, LikeListener listener) {
+    }
+
+    record LikeKey(long filmId, long userId) {
+    }
+}
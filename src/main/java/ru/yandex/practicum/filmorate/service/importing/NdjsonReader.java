@@ -0,0 +1,43 @@
+package ru.yandex.practicum.filmorate.service.importing;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.exception.InternalServerException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+@Component
+@RequiredArgsConstructor
+public class NdjsonReader {
+    private final ObjectMapper objectMapper;
+
+    public <T> void read(InputStream input, Class<T> type, Consumer<T> onItem, Runnable onMalformed) {
+        ObjectReader reader = objectMapper.readerFor(type);
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                T item;
+                try {
+                    item = reader.readValue(line);
+                } catch (JsonProcessingException e) {
+                    onMalformed.run();
+                    continue;
+                }
+                onItem.accept(item);
+            }
+        } catch (IOException e) {
+            throw new InternalServerException("Не удалось прочитать файл импорта");
+        }
+    }
+}
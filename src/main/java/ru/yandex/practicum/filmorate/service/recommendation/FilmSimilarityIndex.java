@@ -0,0 +1,278 @@
+package ru.yandex.practicum.filmorate.service.recommendation;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.repository.film.FilmRepositoryInterface;
+import ru.yandex.practicum.filmorate.service.film.LikeListener;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Slf4j
+@Component
+public class FilmSimilarityIndex implements LikeListener {
+    private static final long[] NO_FILMS = new long[0];
+    private static final int[] NO_GENRES = new int[0];
+    private static final long NO_USER = Long.MIN_VALUE;
+    private static final Comparator<Scored> WEAKEST_FIRST = Comparator
+            .comparingDouble(Scored::similarity)
+            .thenComparing(Comparator.comparingLong(Scored::filmId).reversed());
+    private final FilmRepositoryInterface filmRepository;
+    private final LikeMatrix likeMatrix;
+    private final int bands;
+    private final int rows;
+    private final int maxCandidates;
+    private final long[] seeds;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Long2ObjectOpenHashMap<int[]> genresByFilm = new Long2ObjectOpenHashMap<>();
+    private final Long2ObjectOpenHashMap<long[]> signatures = new Long2ObjectOpenHashMap<>();
+    private final Long2ObjectOpenHashMap<LongOpenHashSet> buckets = new Long2ObjectOpenHashMap<>();
+    private final Map<List<Integer>, long[]> genreSignatures = new HashMap<>();
+
+    public FilmSimilarityIndex(FilmRepositoryInterface filmRepository,
+                               LikeMatrix likeMatrix,
+                               @Value("${filmorate.film-similarity.bands:16}") int bands,
+                               @Value("${filmorate.film-similarity.rows:4}") int rows,
+                               @Value("${filmorate.film-similarity.max-candidates:1000}") int maxCandidates) {
+        this.filmRepository = filmRepository;
+        this.likeMatrix = likeMatrix;
+        this.bands = bands;
+        this.rows = rows;
+        this.maxCandidates = maxCandidates;
+        this.seeds = new long[bands * rows];
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = mix(0x9E3779B97F4A7C15L * (i + 1));
+        }
+    }
+
+    @PostConstruct
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            genresByFilm.clear();
+            signatures.clear();
+            buckets.clear();
+            filmRepository.streamAllFilms(film -> genresByFilm.put(film.getId().longValue(), genreIds(film.getGenres())));
+            genreSignatures.clear();
+            for (var it = genresByFilm.keySet().iterator(); it.hasNext(); ) {
+                long filmId = it.nextLong();
+                reindex(filmId, computeSignature(filmId, NO_USER));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Индекс похожих фильмов построен: {} фильмов, {} корзин", signatures.size(), buckets.size());
+    }
+
+    public void filmChanged(long filmId, List<Genre> genres) {
+        lock.writeLock().lock();
+        try {
+            genresByFilm.put(filmId, genreIds(genres));
+            reindex(filmId, computeSignature(filmId, NO_USER));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void likeAdded(long filmId, long userId) {
+        lock.writeLock().lock();
+        try {
+            long[] current = signatures.get(filmId);
+            long[] signature = current == null ? emptySignature() : current.clone();
+            addFeature(signature, userId);
+            reindex(filmId, signature);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void likeRemoved(long filmId, long userId) {
+        lock.writeLock().lock();
+        try {
+            reindex(filmId, computeSignature(filmId, userId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long[] similar(long filmId, int limit) {
+        lock.readLock().lock();
+        try {
+            long[] signature = signatures.get(filmId);
+            if (signature == null) {
+                return NO_FILMS;
+            }
+            LongOpenHashSet candidates = new LongOpenHashSet();
+            for (int band = 0; band < bands && candidates.size() < maxCandidates; band++) {
+                LongOpenHashSet bucket = buckets.get(bandKey(signature, band));
+                if (bucket == null) {
+                    continue;
+                }
+                for (var it = bucket.iterator(); it.hasNext() && candidates.size() < maxCandidates; ) {
+                    long candidate = it.nextLong();
+                    if (candidate != filmId) {
+                        candidates.add(candidate);
+                    }
+                }
+            }
+
+            LongOpenHashSet features = features(filmId);
+            PriorityQueue<Scored> top = new PriorityQueue<>(limit + 1, WEAKEST_FIRST);
+            for (var it = candidates.iterator(); it.hasNext(); ) {
+                long candidate = it.nextLong();
+                Scored scored = new Scored(candidate, jaccard(features, candidate));
+                if (top.size() < limit) {
+                    top.add(scored);
+                } else if (WEAKEST_FIRST.compare(scored, top.peek()) > 0) {
+                    top.poll();
+                    top.add(scored);
+                }
+            }
+            long[] result = new long[top.size()];
+            for (int i = result.length - 1; i >= 0; i--) {
+                result[i] = top.poll().filmId();
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private double jaccard(LongOpenHashSet features, long candidate) {
+        int[] genres = genresByFilm.getOrDefault(candidate, NO_GENRES);
+        int[] shared = new int[1];
+        for (int genreId : genres) {
+            if (features.contains(genreFeature(genreId))) {
+                shared[0]++;
+            }
+        }
+        likeMatrix.forEachLiker(candidate, userId -> {
+            if (features.contains(userId)) {
+                shared[0]++;
+            }
+        });
+        int union = features.size() + genres.length + likeMatrix.likersCount(candidate) - shared[0];
+        return union == 0 ? 0 : (double) shared[0] / union;
+    }
+
+    private LongOpenHashSet features(long filmId) {
+        LongOpenHashSet features = new LongOpenHashSet();
+        for (int genreId : genresByFilm.getOrDefault(filmId, NO_GENRES)) {
+            features.add(genreFeature(genreId));
+        }
+        likeMatrix.forEachLiker(filmId, features::add);
+        return features;
+    }
+
+    private long[] computeSignature(long filmId, long excludedUser) {
+        int[] genres = genresByFilm.getOrDefault(filmId, NO_GENRES);
+        long[] signature = emptySignature();
+        boolean[] liked = new boolean[1];
+        likeMatrix.forEachLiker(filmId, userId -> {
+            if (userId != excludedUser) {
+                addFeature(signature, userId);
+                liked[0] = true;
+            }
+        });
+        if (!liked[0]) {
+            return genreSignatures.computeIfAbsent(Arrays.stream(genres).sorted().boxed().toList(),
+                    key -> withGenres(emptySignature(), genres));
+        }
+        return withGenres(signature, genres);
+    }
+
+    private long[] withGenres(long[] signature, int[] genres) {
+        for (int genreId : genres) {
+            addFeature(signature, genreFeature(genreId));
+        }
+        return signature;
+    }
+
+    private void reindex(long filmId, long[] signature) {
+        long[] previous = signatures.put(filmId, signature);
+        boolean wasEmpty = previous == null || isEmpty(previous);
+        boolean isEmpty = isEmpty(signature);
+        for (int band = 0; band < bands; band++) {
+            long newKey = bandKey(signature, band);
+            if (!wasEmpty) {
+                long oldKey = bandKey(previous, band);
+                if (!isEmpty && oldKey == newKey) {
+                    continue;
+                }
+                LongOpenHashSet bucket = buckets.get(oldKey);
+                if (bucket != null && bucket.remove(filmId) && bucket.isEmpty()) {
+                    buckets.remove(oldKey);
+                }
+            }
+            if (!isEmpty) {
+                buckets.computeIfAbsent(newKey, key -> new LongOpenHashSet()).add(filmId);
+            }
+        }
+    }
+
+    private long bandKey(long[] signature, int band) {
+        long key = mix(band + 1L);
+        for (int row = 0; row < rows; row++) {
+            key = mix(key ^ signature[band * rows + row]);
+        }
+        return key;
+    }
+
+    private void addFeature(long[] signature, long feature) {
+        for (int i = 0; i < signature.length; i++) {
+            long hash = mix(feature ^ seeds[i]);
+            if (hash < signature[i]) {
+                signature[i] = hash;
+            }
+        }
+    }
+
+    private long[] emptySignature() {
+        long[] signature = new long[seeds.length];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        return signature;
+    }
+
+    private static boolean isEmpty(long[] signature) {
+        return signature[0] == Long.MAX_VALUE;
+    }
+
+    private static int[] genreIds(List<Genre> genres) {
+        if (genres == null) {
+            return NO_GENRES;
+        }
+        return genres.stream()
+                .map(Genre::getId)
+                .filter(Objects::nonNull)
+                .mapToInt(Integer::intValue)
+                .distinct()
+                .toArray();
+    }
+
+    private static long genreFeature(int genreId) {
+        return -1L - genreId;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private record Scored(long filmId, double similarity) {
+    }
+}
@@ -0,0 +1,126 @@
+package ru.yandex.practicum.filmorate.service.recommendation;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.repository.film.FilmRepositoryInterface;
+import ru.yandex.practicum.filmorate.service.film.LikeListener;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LikeMatrix implements LikeListener {
+    private static final long[] NO_LIKES = new long[0];
+    private final FilmRepositoryInterface filmRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Long2ObjectOpenHashMap<LongOpenHashSet> filmsByUser = new Long2ObjectOpenHashMap<>();
+    private Long2ObjectOpenHashMap<LongOpenHashSet> usersByFilm = new Long2ObjectOpenHashMap<>();
+
+    @PostConstruct
+    public void load() {
+        Long2ObjectOpenHashMap<LongOpenHashSet> loadedFilms = new Long2ObjectOpenHashMap<>();
+        Long2ObjectOpenHashMap<LongOpenHashSet> loadedUsers = new Long2ObjectOpenHashMap<>();
+        long[] likes = new long[1];
+        filmRepository.streamAllLikes(like -> {
+            link(loadedFilms, like.getUserId(), like.getFilmId());
+            link(loadedUsers, like.getFilmId(), like.getUserId());
+            likes[0]++;
+        });
+        lock.writeLock().lock();
+        try {
+            filmsByUser = loadedFilms;
+            usersByFilm = loadedUsers;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Матрица лайков загружена: {} пользователей, {} фильмов, {} лайков",
+                loadedFilms.size(), loadedUsers.size(), likes[0]);
+    }
+
+    @Override
+    public void likeAdded(long filmId, long userId) {
+        lock.writeLock().lock();
+        try {
+            link(filmsByUser, userId, filmId);
+            link(usersByFilm, filmId, userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void likeRemoved(long filmId, long userId) {
+        lock.writeLock().lock();
+        try {
+            unlink(filmsByUser, userId, filmId);
+            unlink(usersByFilm, filmId, userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(long filmId, long userId) {
+        lock.readLock().lock();
+        try {
+            LongOpenHashSet users = usersByFilm.get(filmId);
+            return users != null && users.contains(userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long[] filmsLikedBy(long userId) {
+        lock.readLock().lock();
+        try {
+            LongOpenHashSet films = filmsByUser.get(userId);
+            return films == null ? NO_LIKES : films.toLongArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int likersCount(long filmId) {
+        lock.readLock().lock();
+        try {
+            LongOpenHashSet users = usersByFilm.get(filmId);
+            return users == null ? 0 : users.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void forEachLiker(long filmId, LongConsumer consumer) {
+        lock.readLock().lock();
+        try {
+            LongOpenHashSet users = usersByFilm.get(filmId);
+            if (users != null) {
+                users.forEach(consumer);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void link(Long2ObjectOpenHashMap<LongOpenHashSet> index, long key, long value) {
+        LongOpenHashSet values = index.get(key);
+        if (values == null) {
+            values = new LongOpenHashSet();
+            index.put(key, values);
+        }
+        values.add(value);
+    }
+
+    private static void unlink(Long2ObjectOpenHashMap<LongOpenHashSet> index, long key, long value) {
+        LongOpenHashSet values = index.get(key);
+        if (values != null && values.remove(value) && values.isEmpty()) {
+            index.remove(key);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package ru.yandex.practicum.filmorate.service.recommendation;
+
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.dto.FilmDto;
+import ru.yandex.practicum.filmorate.exception.ConditionsNotMetException;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.mapper.FilmMapper;
+import ru.yandex.practicum.filmorate.repository.film.FilmRepositoryInterface;
+import ru.yandex.practicum.filmorate.repository.user.UserRepositoryInterface;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+
+@Service
+public class RecommendationService {
+    private static final int DEFAULT_LIMIT = 10;
+    private static final int MAX_LIMIT = 100;
+    private static final Comparator<Scored> WEAKEST_FIRST = Comparator
+            .comparingInt(Scored::score)
+            .thenComparing(Comparator.comparingLong(Scored::id).reversed());
+    private final LikeMatrix likeMatrix;
+    private final FilmSimilarityIndex similarityIndex;
+    private final FilmRepositoryInterface filmRepository;
+    private final UserRepositoryInterface userRepository;
+    private final FilmMapper mapper;
+    private final int neighbours;
+    private final int filmsPerTask;
+
+    public RecommendationService(LikeMatrix likeMatrix,
+                                 FilmSimilarityIndex similarityIndex,
+                                 FilmRepositoryInterface filmRepository,
+                                 UserRepositoryInterface userRepository,
+                                 FilmMapper mapper,
+                                 @Value("${filmorate.recommendations.neighbours:20}") int neighbours,
+                                 @Value("${filmorate.recommendations.films-per-task:64}") int filmsPerTask) {
+        this.likeMatrix = likeMatrix;
+        this.similarityIndex = similarityIndex;
+        this.filmRepository = filmRepository;
+        this.userRepository = userRepository;
+        this.mapper = mapper;
+        this.neighbours = neighbours;
+        this.filmsPerTask = filmsPerTask;
+    }
+
+    public List<FilmDto> getRecommendations(Long userId, Integer limit) {
+        if (limit != null && (limit <= 0 || limit > MAX_LIMIT)) {
+            throw new ConditionsNotMetException("Количество рекомендаций должно быть от 1 до " + MAX_LIMIT);
+        }
+        userRepository.getUserById(userId)
+                .orElseThrow(() -> new NotFoundException(String.format("Пользователь с id = %d не найден", userId)));
+
+        long[] filmIds = recommend(userId, limit == null ? DEFAULT_LIMIT : limit);
+        return filmRepository.getFilmsByIds(Arrays.stream(filmIds).boxed().toList()).stream()
+                .map(mapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    public List<FilmDto> getSimilarFilms(Long filmId, Integer limit) {
+        if (limit != null && (limit <= 0 || limit > MAX_LIMIT)) {
+            throw new ConditionsNotMetException("Количество похожих фильмов должно быть от 1 до " + MAX_LIMIT);
+        }
+        filmRepository.getFilmById(filmId)
+                .orElseThrow(() -> new NotFoundException(String.format("Фильм с id = %d не найден", filmId)));
+
+        long[] filmIds = similarityIndex.similar(filmId, limit == null ? DEFAULT_LIMIT : limit);
+        return filmRepository.getFilmsByIds(Arrays.stream(filmIds).boxed().toList()).stream()
+                .map(mapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    long[] recommend(long userId, int limit) {
+        long[] liked = likeMatrix.filmsLikedBy(userId);
+        if (liked.length == 0) {
+            return new long[0];
+        }
+        Long2IntOpenHashMap overlaps = ForkJoinPool.commonPool()
+                .invoke(new OverlapTask(userId, liked, 0, liked.length));
+
+        LongOpenHashSet alreadyLiked = new LongOpenHashSet(liked);
+        Long2IntOpenHashMap scores = new Long2IntOpenHashMap();
+        for (Scored neighbour : top(overlaps, neighbours)) {
+            for (long filmId : likeMatrix.filmsLikedBy(neighbour.id())) {
+                if (!alreadyLiked.contains(filmId)) {
+                    scores.addTo(filmId, neighbour.score());
+                }
+            }
+        }
+        return top(scores, limit).stream()
+                .mapToLong(Scored::id)
+                .toArray();
+    }
+
+    private static List<Scored> top(Long2IntOpenHashMap scores, int limit) {
+        PriorityQueue<Scored> heap = new PriorityQueue<>(limit + 1, WEAKEST_FIRST);
+        for (Long2IntMap.Entry entry : scores.long2IntEntrySet()) {
+            Scored candidate = new Scored(entry.getLongKey(), entry.getIntValue());
+            if (heap.size() < limit) {
+                heap.add(candidate);
+            } else if (WEAKEST_FIRST.compare(candidate, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(candidate);
+            }
+        }
+        Scored[] result = new Scored[heap.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = heap.poll();
+        }
+        return List.of(result);
+    }
+
+    private record Scored(long id, int score) {
+    }
+
+    private class OverlapTask extends RecursiveTask<Long2IntOpenHashMap> {
+        private final long userId;
+        private final long[] films;
+        private final int from;
+        private final int to;
+
+        OverlapTask(long userId, long[] films, int from, int to) {
+            this.userId = userId;
+            this.films = films;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long2IntOpenHashMap compute() {
+            if (to - from <= filmsPerTask) {
+                Long2IntOpenHashMap overlaps = new Long2IntOpenHashMap();
+                for (int i = from; i < to; i++) {
+                    likeMatrix.forEachLiker(films[i], liker -> {
+                        if (liker != userId) {
+                            overlaps.addTo(liker, 1);
+                        }
+                    });
+                }
+                return overlaps;
+            }
+            int middle = (from + to) >>> 1;
+            OverlapTask left = new OverlapTask(userId, films, from, middle);
+            left.fork();
+            Long2IntOpenHashMap right = new OverlapTask(userId, films, middle, to).compute();
+            Long2IntOpenHashMap merged = left.join();
+            for (Long2IntMap.Entry entry : right.long2IntEntrySet()) {
+                merged.addTo(entry.getLongKey(), entry.getIntValue());
+            }
+            return merged;
+        }
+    }
+}
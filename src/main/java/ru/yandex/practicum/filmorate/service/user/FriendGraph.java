@@ -0,0 +1,261 @@
+package ru.yandex.practicum.filmorate.service.user;
+
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.repository.user.UserRepositoryInterface;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Slf4j
+@Component
+public class FriendGraph {
+    private static final long[] NO_FRIENDS = new long[0];
+    private static final Comparator<Suggestion> WEAKEST_FIRST = Comparator
+            .comparingInt(Suggestion::mutualFriends)
+            .thenComparing(Comparator.comparingLong(Suggestion::userId).reversed());
+    private final UserRepositoryInterface userRepository;
+    private final int maxFanOut;
+    private final int maxPathDepth;
+    private final int maxPathVisited;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Long2ObjectOpenHashMap<LongOpenHashSet> friends = new Long2ObjectOpenHashMap<>();
+    private Long2ObjectOpenHashMap<LongOpenHashSet> followers = new Long2ObjectOpenHashMap<>();
+
+    public FriendGraph(UserRepositoryInterface userRepository,
+                       @Value("${filmorate.friend-graph.max-fan-out:1000}") int maxFanOut,
+                       @Value("${filmorate.friend-graph.path.max-depth:6}") int maxPathDepth,
+                       @Value("${filmorate.friend-graph.path.max-visited:100000}") int maxPathVisited) {
+        this.userRepository = userRepository;
+        this.maxFanOut = maxFanOut;
+        this.maxPathDepth = maxPathDepth;
+        this.maxPathVisited = maxPathVisited;
+    }
+
+    @PostConstruct
+    public void load() {
+        Long2ObjectOpenHashMap<LongOpenHashSet> loaded = new Long2ObjectOpenHashMap<>();
+        Long2ObjectOpenHashMap<LongOpenHashSet> loadedFollowers = new Long2ObjectOpenHashMap<>();
+        long[] edges = new long[1];
+        userRepository.streamAllFriendships(friendship -> {
+            link(loaded, friendship.getUserId(), friendship.getFriendId());
+            link(loadedFollowers, friendship.getFriendId(), friendship.getUserId());
+            edges[0]++;
+        });
+        lock.writeLock().lock();
+        try {
+            friends = loaded;
+            followers = loadedFollowers;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Граф дружбы загружен: {} пользователей, {} связей", loaded.size(), edges[0]);
+    }
+
+    public void friendshipAdded(long userId, long friendId) {
+        lock.writeLock().lock();
+        try {
+            link(friends, userId, friendId);
+            link(followers, friendId, userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void friendshipRemoved(long userId, long friendId) {
+        lock.writeLock().lock();
+        try {
+            unlink(friends, userId, friendId);
+            unlink(followers, friendId, userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long[] friendsOf(long userId) {
+        lock.readLock().lock();
+        try {
+            LongOpenHashSet userFriends = friends.get(userId);
+            if (userFriends == null) {
+                return NO_FRIENDS;
+            }
+            long[] result = userFriends.toLongArray();
+            Arrays.sort(result);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long[] commonFriends(long userId, long otherId) {
+        lock.readLock().lock();
+        try {
+            LongSet first = friends.get(userId);
+            LongSet second = friends.get(otherId);
+            if (first == null || second == null) {
+                return NO_FRIENDS;
+            }
+            LongSet smaller = first.size() <= second.size() ? first : second;
+            LongSet larger = smaller == first ? second : first;
+            long[] result = new long[smaller.size()];
+            int count = 0;
+            for (var it = smaller.iterator(); it.hasNext(); ) {
+                long candidate = it.nextLong();
+                if (larger.contains(candidate)) {
+                    result[count++] = candidate;
+                }
+            }
+            result = Arrays.copyOf(result, count);
+            Arrays.sort(result);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long[] suggestFriends(long userId, int limit) {
+        Long2IntOpenHashMap mutualCounts = new Long2IntOpenHashMap();
+        lock.readLock().lock();
+        try {
+            LongOpenHashSet direct = friends.get(userId);
+            if (direct == null) {
+                return NO_FRIENDS;
+            }
+            int expanded = 0;
+            for (var friendIt = direct.iterator(); friendIt.hasNext() && expanded < maxFanOut; expanded++) {
+                LongOpenHashSet friendsOfFriend = friends.get(friendIt.nextLong());
+                if (friendsOfFriend == null) {
+                    continue;
+                }
+                int visited = 0;
+                for (var it = friendsOfFriend.iterator(); it.hasNext() && visited < maxFanOut; visited++) {
+                    long candidate = it.nextLong();
+                    if (candidate != userId && !direct.contains(candidate)) {
+                        mutualCounts.addTo(candidate, 1);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        PriorityQueue<Suggestion> top = new PriorityQueue<>(limit + 1, WEAKEST_FIRST);
+        for (Long2IntMap.Entry entry : mutualCounts.long2IntEntrySet()) {
+            Suggestion suggestion = new Suggestion(entry.getLongKey(), entry.getIntValue());
+            if (top.size() < limit) {
+                top.add(suggestion);
+            } else if (WEAKEST_FIRST.compare(suggestion, top.peek()) > 0) {
+                top.poll();
+                top.add(suggestion);
+            }
+        }
+        long[] result = new long[top.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = top.poll().userId();
+        }
+        return result;
+    }
+
+    public long[] shortestPath(long fromId, long toId) {
+        if (fromId == toId) {
+            return new long[]{fromId};
+        }
+        Long2LongOpenHashMap forwardParents = new Long2LongOpenHashMap();
+        Long2LongOpenHashMap backwardParents = new Long2LongOpenHashMap();
+        forwardParents.put(fromId, fromId);
+        backwardParents.put(toId, toId);
+        LongArrayList forwardFrontier = LongArrayList.of(fromId);
+        LongArrayList backwardFrontier = LongArrayList.of(toId);
+
+        lock.readLock().lock();
+        try {
+            for (int depth = 0; depth < maxPathDepth; depth++) {
+                if (forwardFrontier.isEmpty() || backwardFrontier.isEmpty()) {
+                    return NO_FRIENDS;
+                }
+                boolean forward = forwardFrontier.size() <= backwardFrontier.size();
+                Long2ObjectOpenHashMap<LongOpenHashSet> edges = forward ? friends : followers;
+                Long2LongOpenHashMap parents = forward ? forwardParents : backwardParents;
+                Long2LongOpenHashMap opposite = forward ? backwardParents : forwardParents;
+                LongArrayList frontier = forward ? forwardFrontier : backwardFrontier;
+                LongArrayList next = new LongArrayList();
+
+                for (int i = 0; i < frontier.size(); i++) {
+                    long node = frontier.getLong(i);
+                    LongOpenHashSet neighbours = edges.get(node);
+                    if (neighbours == null) {
+                        continue;
+                    }
+                    for (var it = neighbours.iterator(); it.hasNext(); ) {
+                        long neighbour = it.nextLong();
+                        if (parents.containsKey(neighbour)) {
+                            continue;
+                        }
+                        parents.put(neighbour, node);
+                        if (opposite.containsKey(neighbour)) {
+                            return buildPath(neighbour, forwardParents, backwardParents);
+                        }
+                        if (forwardParents.size() + backwardParents.size() > maxPathVisited) {
+                            return NO_FRIENDS;
+                        }
+                        next.add(neighbour);
+                    }
+                }
+                if (forward) {
+                    forwardFrontier = next;
+                } else {
+                    backwardFrontier = next;
+                }
+            }
+            return NO_FRIENDS;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static long[] buildPath(long meeting, Long2LongOpenHashMap forwardParents,
+                                     Long2LongOpenHashMap backwardParents) {
+        LongArrayList path = new LongArrayList();
+        path.add(meeting);
+        for (long node = meeting; forwardParents.get(node) != node; ) {
+            node = forwardParents.get(node);
+            path.add(0, node);
+        }
+        for (long node = meeting; backwardParents.get(node) != node; ) {
+            node = backwardParents.get(node);
+            path.add(node);
+        }
+        return path.toLongArray();
+    }
+
+    private static void unlink(Long2ObjectOpenHashMap<LongOpenHashSet> graph, long userId, long friendId) {
+        LongOpenHashSet userFriends = graph.get(userId);
+        if (userFriends != null && userFriends.remove(friendId) && userFriends.isEmpty()) {
+            graph.remove(userId);
+        }
+    }
+
+    private static void link(Long2ObjectOpenHashMap<LongOpenHashSet> graph, long userId, long friendId) {
+        LongOpenHashSet userFriends = graph.get(userId);
+        if (userFriends == null) {
+            userFriends = new LongOpenHashSet();
+            graph.put(userId, userFriends);
+        }
+        userFriends.add(friendId);
+    }
+
+    private record Suggestion(long userId, int mutualFriends) {
+    }
+}
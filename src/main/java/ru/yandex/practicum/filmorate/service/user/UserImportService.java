@@ -0,0 +1,101 @@
+package ru.yandex.practicum.filmorate.service.user;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.dto.ImportResultDto;
+import ru.yandex.practicum.filmorate.exception.ConditionsNotMetException;
+import ru.yandex.practicum.filmorate.model.BatchItemStatus;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.repository.user.UserRepositoryInterface;
+import ru.yandex.practicum.filmorate.service.importing.NdjsonReader;
+import ru.yandex.practicum.filmorate.service.validation.EmailBloomFilter;
+import ru.yandex.practicum.filmorate.service.validation.ValidationService;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Slf4j
+@Service
+public class UserImportService {
+    private final UserRepositoryInterface userRepository;
+    private final ValidationService validationService;
+    private final EmailBloomFilter emailFilter;
+    private final NdjsonReader ndjsonReader;
+    private final int chunkSize;
+
+    public UserImportService(UserRepositoryInterface userRepository,
+                             ValidationService validationService,
+                             EmailBloomFilter emailFilter,
+                             NdjsonReader ndjsonReader,
+                             @Value("${filmorate.user-import.chunk-size:5000}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.validationService = validationService;
+        this.emailFilter = emailFilter;
+        this.ndjsonReader = ndjsonReader;
+        this.chunkSize = chunkSize;
+    }
+
+    public ImportResultDto importUsers(InputStream input) {
+        long startedAt = System.nanoTime();
+        List<User> chunk = new ArrayList<>(chunkSize);
+        Set<String> chunkEmails = new HashSet<>();
+        long[] counters = new long[2];
+
+        ndjsonReader.read(input, User.class, user -> {
+            try {
+                validationService.validateImport(user);
+            } catch (ConditionsNotMetException e) {
+                counters[1]++;
+                return;
+            }
+            if (!chunkEmails.add(user.getEmail())) {
+                counters[1]++;
+                return;
+            }
+            chunk.add(user);
+            if (chunk.size() == chunkSize) {
+                flush(chunk, chunkEmails, counters);
+                log.info("Импортировано {} пользователей", counters[0]);
+            }
+        }, () -> counters[1]++);
+        flush(chunk, chunkEmails, counters);
+
+        ImportResultDto result = ImportResultDto.of(counters[0], counters[1], startedAt);
+        log.info("Импорт пользователей завершён: принято {}, отклонено {}, {} строк/с",
+                result.getAccepted(), result.getRejected(), result.getRowsPerSecond());
+        return result;
+    }
+
+    private void flush(List<User> chunk, Set<String> chunkEmails, long[] counters) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<String> candidates = chunk.stream()
+                .map(User::getEmail)
+                .filter(emailFilter::mightContain)
+                .toList();
+        Set<String> existing = candidates.isEmpty() ? Set.of() : userRepository.findExistingEmails(candidates);
+        List<User> accepted = chunk.stream()
+                .filter(user -> !existing.contains(user.getEmail()))
+                .toList();
+
+        long imported = 0;
+        if (!accepted.isEmpty()) {
+            List<BatchItemStatus> results = userRepository.importUsers(accepted);
+            for (int i = 0; i < results.size(); i++) {
+                if (results.get(i) == BatchItemStatus.ADDED) {
+                    emailFilter.put(accepted.get(i).getEmail());
+                    imported++;
+                }
+            }
+        }
+        counters[0] += imported;
+        counters[1] += chunk.size() - imported;
+        chunk.clear();
+        chunkEmails.clear();
+    }
+}
@@ -1,15 +1,20 @@
 package ru.yandex.practicum.filmorate.service.user;
 
+import ru.yandex.practicum.filmorate.dto.BatchResultDto;
 import ru.yandex.practicum.filmorate.dto.UserDto;
+import ru.yandex.practicum.filmorate.model.Friendship;
 import ru.yandex.practicum.filmorate.model.User;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
     void addFriend(Long userId, Long friendId);
 
     void deleteFriend(Long userId, Long friendId);
 
+    BatchResultDto addFriends(List<Friendship> friendships);
+
     UserDto saveUser(User user);
 
     UserDto updateUser(User user);
@@ -18,5 +23,11 @@ public interface UserService {
 
     List<UserDto> getFriendsList(Long userId);
 
+    List<UserDto> getFriendSuggestions(Long userId, Integer limit);
+
+    List<UserDto> getFriendPath(Long userId, Long otherId);
+
     List<UserDto> getAllUsers();
+
+    void streamAllUsers(Consumer<UserDto> consumer);
 }
\ No newline at end of file
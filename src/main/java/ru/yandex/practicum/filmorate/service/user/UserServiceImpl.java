@@ -1,27 +1,56 @@
 package ru.yandex.practicum.filmorate.service.user;
 
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.yandex.practicum.filmorate.config.ReadRouting;
+import ru.yandex.practicum.filmorate.dto.BatchResultDto;
 import ru.yandex.practicum.filmorate.dto.UserDto;
 import ru.yandex.practicum.filmorate.exception.ConditionsNotMetException;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
 import ru.yandex.practicum.filmorate.mapper.UserMapper;
+import ru.yandex.practicum.filmorate.metrics.FriendshipMetrics;
+import ru.yandex.practicum.filmorate.model.BatchItemStatus;
+import ru.yandex.practicum.filmorate.model.Friendship;
 import ru.yandex.practicum.filmorate.model.User;
 import ru.yandex.practicum.filmorate.repository.user.UserRepositoryInterface;
+import ru.yandex.practicum.filmorate.service.validation.EmailBloomFilter;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserRepositoryInterface userRepository;
     private final UserMapper mapper;
+    private final EmailBloomFilter emailFilter;
+    private final FriendGraph friendGraph;
+    private final FriendshipMetrics friendshipMetrics;
+    private final int maxBatchSize;
     private static final String USER_NOT_FOUND = "Пользователь с id = %d не найден";
+    private static final int DEFAULT_SUGGESTIONS_LIMIT = 10;
+    private static final int MAX_SUGGESTIONS_LIMIT = 100;
+
+    public UserServiceImpl(UserRepositoryInterface userRepository,
+                           UserMapper mapper,
+                           EmailBloomFilter emailFilter,
+                           FriendGraph friendGraph,
+                           FriendshipMetrics friendshipMetrics,
+                           @Value("${filmorate.friends.batch.max-size:100000}") int maxBatchSize) {
+        this.userRepository = userRepository;
+        this.mapper = mapper;
+        this.emailFilter = emailFilter;
+        this.friendGraph = friendGraph;
+        this.friendshipMetrics = friendshipMetrics;
+        this.maxBatchSize = maxBatchSize;
+    }
 
     @Override
     public UserDto saveUser(User user) {
         User savedUser = userRepository.saveUser(user);
+        emailFilter.put(savedUser.getEmail());
         return mapper.mapToUserDto(savedUser);
     }
 
@@ -30,54 +59,112 @@ public class UserServiceImpl implements UserService {
         userRepository.getUserById(user.getId())
                 .orElseThrow(() -> new NotFoundException(String.format(USER_NOT_FOUND, user.getId())));
         User updatedUser = userRepository.updateUser(user);
+        emailFilter.put(updatedUser.getEmail());
         return mapper.mapToUserDto(updatedUser);
     }
 
     @Override
     public void addFriend(Long userId, Long friendId) {
-        userRepository.getUserById(userId)
-                .orElseThrow(() -> new NotFoundException(String.format(USER_NOT_FOUND, userId)));
-        userRepository.getUserById(friendId)
-                .orElseThrow(() -> new NotFoundException(String.format(USER_NOT_FOUND, friendId)));
         userRepository.addFriend(userId, friendId);
+        friendGraph.friendshipAdded(userId, friendId);
+        friendshipMetrics.friendshipAdded();
     }
 
     @Override
     public void deleteFriend(Long userId, Long friendId) {
-        userRepository.getUserById(userId)
-                .orElseThrow(() -> new NotFoundException(String.format(USER_NOT_FOUND, userId)));
-        userRepository.getUserById(friendId)
-                .orElseThrow(() -> new NotFoundException(String.format(USER_NOT_FOUND, friendId)));
-        userRepository.deleteFriend(userId, friendId);
+        if (userRepository.deleteFriend(userId, friendId) > 0) {
+            friendGraph.friendshipRemoved(userId, friendId);
+            friendshipMetrics.friendshipRemoved();
+        }
+    }
+
+    @Override
+    public BatchResultDto addFriends(List<Friendship> friendships) {
+        if (friendships.size() > maxBatchSize) {
+            throw new ConditionsNotMetException("Размер пакета не должен превышать " + maxBatchSize);
+        }
+        List<BatchItemStatus> results = userRepository.addFriends(friendships);
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == BatchItemStatus.ADDED) {
+                Friendship friendship = friendships.get(i);
+                friendGraph.friendshipAdded(friendship.getUserId(), friendship.getFriendId());
+                friendshipMetrics.friendshipAdded();
+            }
+        }
+        return BatchResultDto.of(results);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<UserDto> getCommonFriends(Long user1Id, Long user2Id) {
-        userRepository.getUserById(user1Id)
-                .orElseThrow(() -> new NotFoundException(String.format(USER_NOT_FOUND, user1Id)));
-        userRepository.getUserById(user2Id)
-                .orElseThrow(() -> new NotFoundException(String.format(USER_NOT_FOUND, user2Id)));
         if (user1Id.equals(user2Id)) {
+            requireUsers(List.of(user1Id), 1);
             throw new ConditionsNotMetException("Пользователи должны иметь разные id");
         }
-        return userRepository.getCommonFriends(user1Id, user2Id).stream()
-                .map(mapper::mapToUserDto)
-                .collect(Collectors.toList());
+        return hydrate(List.of(user1Id, user2Id), friendGraph.commonFriends(user1Id, user2Id));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<UserDto> getFriendsList(Long userId) {
-        userRepository.getUserById(userId)
-                .orElseThrow(() -> new NotFoundException(String.format(USER_NOT_FOUND, userId)));
-        return userRepository.getFriendsList(userId).stream()
-                .map(mapper::mapToUserDto)
-                .collect(Collectors.toList());
+        return hydrate(List.of(userId), friendGraph.friendsOf(userId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserDto> getFriendSuggestions(Long userId, Integer limit) {
+        if (limit != null && (limit <= 0 || limit > MAX_SUGGESTIONS_LIMIT)) {
+            throw new ConditionsNotMetException("Количество рекомендаций должно быть от 1 до " + MAX_SUGGESTIONS_LIMIT);
+        }
+        int size = limit == null ? DEFAULT_SUGGESTIONS_LIMIT : limit;
+        return hydrate(List.of(userId), friendGraph.suggestFriends(userId, size));
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<UserDto> getFriendPath(Long userId, Long otherId) {
+        List<UserDto> path = hydrate(List.of(userId, otherId), friendGraph.shortestPath(userId, otherId));
+        if (path.isEmpty()) {
+            throw new NotFoundException(String.format("Путь от пользователя с id = %d до пользователя с id = %d не найден",
+                    userId, otherId));
+        }
+        return path;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<UserDto> getAllUsers() {
         return userRepository.getAllUsers().stream()
                 .map(mapper::mapToUserDto)
                 .collect(Collectors.toList());
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllUsers(Consumer<UserDto> consumer) {
+        userRepository.streamAllUsers(user -> consumer.accept(mapper.mapToUserDto(user)));
+    }
+
+    private List<UserDto> hydrate(List<Long> requiredIds, long[] friendIds) {
+        List<Long> ids = new ArrayList<>(requiredIds.size() + friendIds.length);
+        ids.addAll(requiredIds);
+        for (long friendId : friendIds) {
+            ids.add(friendId);
+        }
+        List<User> users = requireUsers(ids, requiredIds.size());
+        return users.subList(requiredIds.size(), users.size()).stream()
+                .map(mapper::mapToUserDto)
+                .collect(Collectors.toList());
+    }
+
+    private List<User> requireUsers(List<Long> ids, int requiredCount) {
+        List<User> users = ReadRouting.onPrimary(() -> userRepository.getUsersByIds(ids));
+        for (int i = 0; i < requiredCount; i++) {
+            Long id = ids.get(i);
+            if (i >= users.size() || !users.get(i).getId().equals(id)) {
+                throw new NotFoundException(String.format(USER_NOT_FOUND, id));
+            }
+        }
+        return users;
+    }
 }
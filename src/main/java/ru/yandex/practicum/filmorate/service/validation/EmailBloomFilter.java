@@ -0,0 +1,82 @@
+package ru.yandex.practicum.filmorate.service.validation;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.repository.user.UserRepositoryInterface;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Slf4j
+@Component
+public class EmailBloomFilter {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final UserRepositoryInterface userRepository;
+    private final AtomicLongArray bits;
+    private final long numBits;
+    private final int numHashes;
+
+    public EmailBloomFilter(UserRepositoryInterface userRepository,
+                            @Value("${filmorate.email-filter.expected-users:1000000}") long expectedUsers,
+                            @Value("${filmorate.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        long optimalBits = (long) Math.ceil(-expectedUsers * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.max(1, (optimalBits + Long.SIZE - 1) / Long.SIZE);
+        this.bits = new AtomicLongArray(words);
+        this.numBits = (long) words * Long.SIZE;
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / expectedUsers * Math.log(2)));
+    }
+
+    @PostConstruct
+    public void load() {
+        long[] loaded = new long[1];
+        userRepository.streamAllEmails(email -> {
+            put(email);
+            loaded[0]++;
+        });
+        log.info("Фильтр email загружен: {} адресов, {} бит, {} хеш-функций", loaded[0], numBits, numHashes);
+    }
+
+    public void put(String email) {
+        long hash = hash(email);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, numBits);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = bits.get(word);
+            while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+        }
+    }
+
+    public boolean mightContain(String email) {
+        long hash = hash(email);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, numBits);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long hash(String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -8,6 +8,8 @@ public interface ValidationService {
 
     void validateUpdate(User user);
 
+    void validateImport(User user);
+
     void validateCreate(Film film);
 
     void validateUpdate(Film film);
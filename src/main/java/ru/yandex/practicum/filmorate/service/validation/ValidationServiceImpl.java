@@ -20,6 +20,7 @@ public class ValidationServiceImpl implements ValidationService {
     private static final LocalDate CINEMA_BIRTHDAY = LocalDate.of(1895, 12, 28);
     private final UserRepositoryInterface userRepository;
     private final FilmRepositoryInterface filmRepository;
+    private final EmailBloomFilter emailFilter;
 
     @Override
     public void validateCreate(User user) {
@@ -53,6 +54,18 @@ public class ValidationServiceImpl implements ValidationService {
         if (user.getBirthday() != null) validateBirthday(user.getBirthday());
     }
 
+    @Override
+    public void validateImport(User user) {
+        validateEmail(user.getEmail());
+        validateLogin(user.getLogin());
+        if (user.getBirthday() != null) {
+            validateBirthday(user.getBirthday());
+        }
+        if (user.getName() == null || user.getName().isBlank()) {
+            user.setName(user.getLogin());
+        }
+    }
+
     @Override
     public void validateCreate(Film film) {
         validateFilmName(film.getName());
@@ -121,8 +134,7 @@ public class ValidationServiceImpl implements ValidationService {
     }
 
     private boolean isEmailUsed(String email) {
-        return userRepository.getAllUsers().stream()
-                .anyMatch(user -> user.getEmail().equals(email));
+        return emailFilter.mightContain(email) && userRepository.existsByEmail(email);
     }
 
     private void validateReleaseDate(LocalDate releaseDate) {
@@ -0,0 +1,4 @@
+package ru.yandex.practicum.filmorate.service.version;
+
+public record VersionStamp(String etag, long lastModified) {
+}
@@ -0,0 +1,79 @@
+package ru.yandex.practicum.filmorate.service.version;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.repository.reference.ReferenceDataCache;
+import ru.yandex.practicum.filmorate.service.film.LikeListener;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@RequiredArgsConstructor
+public class VersionStamps implements LikeListener {
+    private final ReferenceDataCache referenceData;
+    private final String bootId = Long.toHexString(UUID.randomUUID().getMostSignificantBits());
+    private final long bootedAt = truncateToSeconds(System.currentTimeMillis());
+    private final Map<Long, Change> filmChanges = new ConcurrentHashMap<>();
+    private final AtomicLong filmsEpoch = new AtomicLong();
+    private final AtomicLong likesEpoch = new AtomicLong();
+    private volatile long filmsChangedAt;
+    private volatile long likesChangedAt;
+
+    public VersionStamp film(long filmId) {
+        Change change = filmChanges.get(filmId);
+        long version = change == null ? 0 : change.version();
+        long changedAt = change == null ? bootedAt : change.changedAt();
+        return new VersionStamp("film-" + filmId + "-" + bootId + "-" + version, changedAt);
+    }
+
+    public VersionStamp popular() {
+        return new VersionStamp("popular-" + bootId + "-" + filmsEpoch.get() + "-" + likesEpoch.get(),
+                Math.max(bootedAt, Math.max(filmsChangedAt, likesChangedAt)));
+    }
+
+    public VersionStamp reference() {
+        return new VersionStamp("reference-" + bootId + "-" + referenceData.getVersion(), bootedAt);
+    }
+
+    public void filmAdded() {
+        filmsEpoch.incrementAndGet();
+        filmsChangedAt = now();
+    }
+
+    public void filmUpdated(long filmId) {
+        long changedAt = now();
+        filmChanges.compute(filmId, (id, change) ->
+                new Change(change == null ? 1 : change.version() + 1, changedAt));
+        filmsEpoch.incrementAndGet();
+        filmsChangedAt = changedAt;
+    }
+
+    @Override
+    public void likeAdded(long filmId, long userId) {
+        likeChanged();
+    }
+
+    @Override
+    public void likeRemoved(long filmId, long userId) {
+        likeChanged();
+    }
+
+    private void likeChanged() {
+        likesEpoch.incrementAndGet();
+        likesChangedAt = now();
+    }
+
+    private static long now() {
+        return truncateToSeconds(System.currentTimeMillis());
+    }
+
+    private static long truncateToSeconds(long millis) {
+        return millis - millis % 1000;
+    }
+
+    private record Change(long version, long changedAt) {
+    }
+}
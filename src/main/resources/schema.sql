@@ -16,8 +16,10 @@ CREATE TABLE IF NOT EXISTS users (
     birthday DATE
 );
 
+CREATE SEQUENCE IF NOT EXISTS film_id_seq START WITH 1 CACHE 1000;
+
 CREATE TABLE IF NOT EXISTS films (
-    film_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    film_id BIGINT DEFAULT NEXT VALUE FOR film_id_seq PRIMARY KEY,
     name VARCHAR(100) NOT NULL,
     description VARCHAR(200),
     release_date DATE NOT NULL,
@@ -27,6 +29,17 @@ CREATE TABLE IF NOT EXISTS films (
     CONSTRAINT fk_film_mpa FOREIGN KEY (mpa_id) REFERENCES mpa(mpa_id)
 );
 
+ALTER TABLE films ALTER COLUMN film_id DROP IDENTITY;
+
+ALTER TABLE films ALTER COLUMN film_id SET DEFAULT NEXT VALUE FOR film_id_seq;
+
+ALTER SEQUENCE film_id_seq RESTART WITH (
+    SELECT GREATEST(COALESCE(MAX(f.film_id), 0) + 1, s.base_value)
+    FROM films f, INFORMATION_SCHEMA.SEQUENCES s
+    WHERE s.sequence_name = 'FILM_ID_SEQ'
+    GROUP BY s.base_value
+);
+
 CREATE TABLE IF NOT EXISTS film_genres (
     film_id BIGINT NOT NULL,
     genre_id INT NOT NULL,
@@ -49,4 +62,18 @@ CREATE TABLE IF NOT EXISTS likes (
     PRIMARY KEY (film_id, user_id),
     FOREIGN KEY (film_id) REFERENCES films(film_id) ON DELETE CASCADE,
     FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE
-);
\ No newline at end of file
+);
+
+CREATE TABLE IF NOT EXISTS film_stats (
+    film_id BIGINT PRIMARY KEY,
+    likes_count INT NOT NULL DEFAULT 0,
+    FOREIGN KEY (film_id) REFERENCES films(film_id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_film_stats_popularity ON film_stats (likes_count DESC, film_id);
+
+CREATE INDEX IF NOT EXISTS idx_film_genres_genre ON film_genres (genre_id);
+
+CREATE INDEX IF NOT EXISTS idx_friends_friend ON friends (friend_id);
+
+CREATE INDEX IF NOT EXISTS idx_likes_user ON likes (user_id);
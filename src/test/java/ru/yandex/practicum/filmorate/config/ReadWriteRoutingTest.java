@@ -0,0 +1,100 @@
+package ru.yandex.practicum.filmorate.config;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.yandex.practicum.filmorate.dto.UserDto;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.user.UserService;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DisplayName("Маршрутизация чтения между основной базой и репликой")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1;MODE=LEGACY",
+        "filmorate.datasource.routing.enabled=true",
+        "filmorate.datasource.replica.url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1;MODE=LEGACY",
+        "filmorate.datasource.replica.max-lag=1h",
+        "filmorate.datasource.replica.sync-interval=PT1H"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ReadWriteRoutingTest {
+    private final UserService userService;
+    private final ReplicaSynchronizer synchronizer;
+    private final DataSource dataSource;
+    private final MockMvc mockMvc;
+    private String email;
+    private UserDto user;
+
+    @BeforeEach
+    void setUp() {
+        synchronizer.sync();
+        email = UUID.randomUUID() + "@mail.ru";
+        user = userService.saveUser(newUser(email));
+    }
+
+    @Test
+    @DisplayName("Чтение идёт в реплику и видит запись только после синхронизации")
+    void readsFromReplicaUntilSynced() {
+        assertThat(userService.getAllUsers()).extracting(UserDto::getEmail).doesNotContain(email);
+
+        synchronizer.sync();
+
+        assertThat(userService.getAllUsers()).extracting(UserDto::getEmail).contains(email);
+    }
+
+    @Test
+    @DisplayName("Принудительное чтение из основной базы видит свежую запись")
+    void readsOwnWritesFromPrimaryWhenForced() throws Exception {
+        assertThat(ReadRouting.onPrimary(userService::getAllUsers)).extracting(UserDto::getEmail).contains(email);
+
+        mockMvc.perform(get("/users").header(ReadConsistencyFilter.HEADER, ReadConsistencyFilter.PRIMARY))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(email)));
+    }
+
+    @Test
+    @DisplayName("Отставшая реплика не используется")
+    void fallsBackToPrimaryWhenReplicaLags() throws SQLException {
+        ReadWriteRoutingDataSource routing = dataSource.unwrap(ReadWriteRoutingDataSource.class);
+        routing.replicaSynced(System.currentTimeMillis() - Duration.ofHours(2).toMillis());
+
+        assertThat(userService.getAllUsers()).extracting(UserDto::getEmail).contains(email);
+    }
+
+    @Test
+    @DisplayName("Друзья из графа загружаются из основной базы, даже если реплика отстаёт")
+    void loadsGraphUsersFromPrimary() {
+        UserDto friend = userService.saveUser(newUser(UUID.randomUUID() + "@mail.ru"));
+        userService.addFriend(user.getId(), friend.getId());
+
+        assertThat(userService.getFriendsList(user.getId())).extracting(UserDto::getId).containsExactly(friend.getId());
+    }
+
+    private static User newUser(String email) {
+        return User.builder()
+                .email(email)
+                .login("routing")
+                .name("Routing")
+                .birthday(LocalDate.of(1990, 1, 1))
+                .build();
+    }
+}
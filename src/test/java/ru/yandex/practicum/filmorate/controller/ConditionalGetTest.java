@@ -0,0 +1,150 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.repository.user.UserRepositoryInterface;
+import ru.yandex.practicum.filmorate.service.film.FilmService;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DisplayName("Условные GET-запросы с ETag")
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ConditionalGetTest {
+    @SpyBean
+    private FilmService filmService;
+    private final MockMvc mockMvc;
+    private final UserRepositoryInterface userRepository;
+    private Long filmId;
+
+    @BeforeEach
+    void setUp() {
+        filmId = filmService.saveFilm(film("Film")).getId();
+        clearInvocations(filmService);
+    }
+
+    @Test
+    @DisplayName("Неизменённый фильм отдаётся как 304 без обращения к сервису")
+    void returnsNotModifiedForUnchangedFilm() throws Exception {
+        String etag = etagOf("/films/" + filmId);
+
+        mockMvc.perform(get("/films/" + filmId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        verify(filmService).getFilmById(filmId);
+    }
+
+    @Test
+    @DisplayName("Совпавший ETag для несуществующего фильма не скрывает ответ 404")
+    void returnsNotFoundForMissingFilmWithMatchingEtag() throws Exception {
+        String etag = etagOf("/films/" + filmId).replace("film-" + filmId + "-", "film-" + (filmId + 1000) + "-");
+
+        mockMvc.perform(get("/films/" + (filmId + 1000)).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Обновление фильма меняет его ETag")
+    void changesEtagAfterUpdate() throws Exception {
+        String etag = etagOf("/films/" + filmId);
+        Film updated = film("Updated");
+        updated.setId(filmId);
+        filmService.updateFilm(updated);
+
+        mockMvc.perform(get("/films/" + filmId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Лайк меняет ETag списка популярных фильмов")
+    void changesPopularEtagAfterLike() throws Exception {
+        String etag = etagOf("/films/popular");
+        mockMvc.perform(get("/films/popular").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        verify(filmService).getTheMostPopularFilms(anyInt());
+
+        Long userId = userRepository.saveUser(User.builder()
+                .email("etag@example.com")
+                .login("etag")
+                .name("Name")
+                .birthday(LocalDate.of(1990, 1, 1))
+                .build()).getId();
+        filmService.addLike(userId, filmId);
+
+        mockMvc.perform(get("/films/popular").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Справочники отдаются как 304 при совпадении ETag")
+    void returnsNotModifiedForReferenceData() throws Exception {
+        String etag = etagOf("/genres");
+
+        mockMvc.perform(get("/genres").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/mpa/1").header(HttpHeaders.IF_NONE_MATCH, etagOf("/mpa/1")))
+                .andExpect(status().isNotModified());
+        verify(filmService, never()).getFilmById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Повторный запрос фильма отдаётся из кэша ответов без обращения к сервису")
+    void servesRepeatedReadFromResponseCache() throws Exception {
+        String body = mockMvc.perform(get("/films/" + filmId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String cached = mockMvc.perform(get("/films/" + filmId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(cached).isEqualTo(body);
+        verify(filmService).getFilmById(filmId);
+    }
+
+    private String etagOf(String path) throws Exception {
+        String etag = mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotBlank();
+        return etag;
+    }
+
+    private static Film film(String name) {
+        return Film.builder()
+                .name(name)
+                .description("Description")
+                .releaseDate(LocalDate.of(2000, 1, 1))
+                .duration(100)
+                .mpa(new Mpa(1, "G"))
+                .build();
+    }
+}
@@ -0,0 +1,74 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import ru.yandex.practicum.filmorate.controller.cache.CachedResponse;
+import ru.yandex.practicum.filmorate.controller.cache.OffHeapResponseCache;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Кэш сериализованных ответов вне кучи")
+class OffHeapResponseCacheTest {
+    private OffHeapResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new OffHeapResponseCache(new SimpleMeterRegistry(), DataSize.ofBytes(2048), DataSize.ofBytes(1024),
+                true);
+    }
+
+    @Test
+    @DisplayName("Запись с устаревшей версией не отдаётся и удаляется")
+    void dropsEntryWithStaleStamp() {
+        cache.put("/genres", "v1", "application/json", "\"v1\"", null, body(100));
+
+        assertThat(cache.get("/genres", "v1")).isNotNull();
+        assertThat(cache.get("/genres", "v2")).isNull();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.getUsedBytes()).isZero();
+    }
+
+    @Test
+    @DisplayName("При превышении объёма вытесняются давно не читанные записи")
+    void evictsLeastRecentlyUsedBySize() {
+        cache.put("/films/1", "v", "application/json", null, null, body(900));
+        cache.put("/films/2", "v", "application/json", null, null, body(900));
+        cache.get("/films/1", "v");
+        cache.put("/films/3", "v", "application/json", null, null, body(900));
+
+        assertThat(cache.get("/films/2", "v")).isNull();
+        assertThat(cache.get("/films/1", "v")).isNotNull();
+        assertThat(cache.get("/films/3", "v")).isNotNull();
+        assertThat(cache.getUsedBytes()).isLessThanOrEqualTo(2048);
+    }
+
+    @Test
+    @DisplayName("Слишком большие ответы не кэшируются, сжатая копия совпадает с исходной")
+    void skipsOversizedEntriesAndKeepsGzipCopy() throws IOException {
+        assertThat(cache.put("/films/popular", "v", "application/json", null, null, body(1025))).isFalse();
+
+        byte[] body = body(1000);
+        cache.put("/films/popular?count=10", "v", "application/json", null, null, body);
+        CachedResponse cached = cache.get("/films/popular?count=10", "v");
+
+        assertThat(cached.identity().isDirect()).isTrue();
+        assertThat(cached.gzip()).isNotNull();
+        byte[] compressed = new byte[cached.gzip().remaining()];
+        cached.gzip().duplicate().get(compressed);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertThat(in.readAllBytes()).isEqualTo(body);
+        }
+    }
+
+    private static byte[] body(int size) {
+        return "x".repeat(size).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,83 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.repository.genre.GenreRepositoryInterface;
+import ru.yandex.practicum.filmorate.repository.user.UserRepositoryInterface;
+import ru.yandex.practicum.filmorate.service.user.UserService;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Метрики вызовов репозиториев и сервисов")
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class CallMetricsTest {
+    private final MeterRegistry registry;
+    private final GenreRepositoryInterface genreRepository;
+    private final UserRepositoryInterface userRepository;
+    private final UserService userService;
+
+    @Test
+    @DisplayName("Вызов метода репозитория записывается в таймер")
+    void shouldTimeRepositoryCalls() {
+        genreRepository.getAllGenres();
+
+        Timer timer = registry.find(CallTimingAspect.REPOSITORY_TIMER)
+                .tags("class", "JdbcGenreRepository", "method", "getAllGenres", "exception", "none")
+                .timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Добавление и удаление друга увеличивает счётчики")
+    void shouldCountFriendChanges() {
+        Long userId = userRepository.saveUser(user("metrics-first@example.com")).getId();
+        Long friendId = userRepository.saveUser(user("metrics-second@example.com")).getId();
+        double added = friendChanges("added");
+        double removed = friendChanges("removed");
+
+        userService.addFriend(userId, friendId);
+        userService.deleteFriend(userId, friendId);
+
+        assertThat(friendChanges("added")).isEqualTo(added + 1);
+        assertThat(friendChanges("removed")).isEqualTo(removed + 1);
+    }
+
+    @Test
+    @DisplayName("Удаление несуществующей дружбы не увеличивает счётчик")
+    void shouldNotCountMissingFriendshipRemoval() {
+        Long userId = userRepository.saveUser(user("metrics-third@example.com")).getId();
+        Long friendId = userRepository.saveUser(user("metrics-fourth@example.com")).getId();
+        double removed = friendChanges("removed");
+
+        userService.deleteFriend(userId, friendId);
+
+        assertThat(friendChanges("removed")).isEqualTo(removed);
+    }
+
+    private double friendChanges(String change) {
+        return registry.get(FriendshipMetrics.FRIENDS_COUNTER).tag("change", change).counter().count();
+    }
+
+    private static User user(String email) {
+        return User.builder()
+                .email(email)
+                .login(email.substring(0, email.indexOf('@')))
+                .name("Name")
+                .birthday(LocalDate.of(1990, 1, 1))
+                .build();
+    }
+}
@@ -0,0 +1,149 @@
+package ru.yandex.practicum.filmorate.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.yandex.practicum.filmorate.dto.ImportResultDto;
+import ru.yandex.practicum.filmorate.model.BatchItemStatus;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Friendship;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.repository.film.FilmRepositoryInterface;
+import ru.yandex.practicum.filmorate.repository.user.UserRepositoryInterface;
+import ru.yandex.practicum.filmorate.service.user.UserImportService;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Пакетная вставка при параллельной записи тех же строк")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:batch-race;DB_CLOSE_DELAY=-1;MODE=LEGACY")
+@ActiveProfiles("test")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BatchInsertRaceTest {
+    private final FilmRepositoryInterface filmRepository;
+    private final UserRepositoryInterface userRepository;
+    private final UserImportService userImportService;
+    private final DataSource dataSource;
+    private Long film1Id;
+    private Long film2Id;
+    private Long user1Id;
+    private Long user2Id;
+
+    @BeforeEach
+    void setUp() {
+        film1Id = filmRepository.saveFilm(film("Race 1")).getId();
+        film2Id = filmRepository.saveFilm(film("Race 2")).getId();
+        user1Id = userRepository.saveUser(user()).getId();
+        user2Id = userRepository.saveUser(user()).getId();
+    }
+
+    @Test
+    @DisplayName("Лайк, вставленный параллельной транзакцией, считается дубликатом, остальные лайки сохраняются")
+    void concurrentLikeIsReportedAsDuplicate() throws Exception {
+        List<BatchItemStatus> results = raceWith("INSERT INTO likes (film_id, user_id) VALUES (?, ?)",
+                List.of(film1Id, user1Id),
+                () -> filmRepository.addLikes(List.of(new Like(film1Id, user1Id), new Like(film2Id, user1Id))));
+
+        assertThat(results).containsExactly(BatchItemStatus.DUPLICATE, BatchItemStatus.ADDED);
+        assertThat(filmRepository.getLikes(film2Id)).containsExactly(user1Id);
+        assertThat(filmRepository.getLikesCounts()).containsEntry(film2Id, 1);
+    }
+
+    @Test
+    @DisplayName("Дружба, вставленная параллельной транзакцией, считается дубликатом, остальные дружбы сохраняются")
+    void concurrentFriendshipIsReportedAsDuplicate() throws Exception {
+        List<BatchItemStatus> results = raceWith("INSERT INTO friends (user_id, friend_id) VALUES (?, ?)",
+                List.of(user1Id, user2Id),
+                () -> userRepository.addFriends(List.of(
+                        new Friendship(user1Id, user2Id), new Friendship(user2Id, user1Id))));
+
+        assertThat(results).containsExactly(BatchItemStatus.DUPLICATE, BatchItemStatus.ADDED);
+        assertThat(userRepository.getFriendsList(user2Id)).extracting(User::getId).containsExactly(user1Id);
+    }
+
+    @Test
+    @DisplayName("Пользователь, созданный параллельной транзакцией, отклоняется при импорте, остальные импортируются")
+    void concurrentSignupIsRejectedByImport() throws Exception {
+        String taken = UUID.randomUUID() + "@mail.ru";
+        String free = UUID.randomUUID() + "@mail.ru";
+        String ndjson = String.format("""
+                {"email":"%s","login":"taken","name":"Taken","birthday":"1990-01-01"}
+                {"email":"%s","login":"free","name":"Free","birthday":"1990-01-01"}
+                """, taken, free);
+
+        ImportResultDto result = raceWith("INSERT INTO users (email, login) VALUES (?, ?)",
+                List.of(taken, "signup"),
+                () -> userImportService.importUsers(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8))));
+
+        assertThat(result.getAccepted()).isEqualTo(1);
+        assertThat(result.getRejected()).isEqualTo(1);
+        assertThat(userRepository.findExistingEmails(List.of(taken, free))).containsExactlyInAnyOrder(taken, free);
+    }
+
+    private <T> T raceWith(String insert, List<Object> row, Callable<T> batch) throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(insert)) {
+                for (int i = 0; i < row.size(); i++) {
+                    statement.setObject(i + 1, row.get(i));
+                }
+                statement.executeUpdate();
+            }
+            FutureTask<T> task = new FutureTask<>(batch);
+            Thread worker = new Thread(task);
+            worker.start();
+            while (worker.isAlive() && !isMergeRunning(connection)) {
+                Thread.onSpinWait();
+            }
+            connection.commit();
+            return task.get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static boolean isMergeRunning(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery(
+                     "SELECT COUNT(*) FROM INFORMATION_SCHEMA.SESSIONS WHERE EXECUTING_STATEMENT LIKE 'MERGE%'")) {
+            return rows.next() && rows.getInt(1) > 0;
+        }
+    }
+
+    private static Film film(String name) {
+        return Film.builder()
+                .name(name)
+                .description("Description")
+                .releaseDate(LocalDate.of(2000, 1, 1))
+                .duration(100)
+                .mpa(new Mpa(1, "G"))
+                .build();
+    }
+
+    private static User user() {
+        return User.builder()
+                .email(UUID.randomUUID() + "@mail.ru")
+                .login("race")
+                .name("Race")
+                .birthday(LocalDate.of(1990, 1, 1))
+                .build();
+    }
+}
@@ -0,0 +1,70 @@
+package ru.yandex.practicum.filmorate.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.repository.film.CachingFilmRepository;
+import ru.yandex.practicum.filmorate.repository.film.FilmRepositoryInterface;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingFilmRepositoryTest {
+    private FilmRepositoryInterface delegate;
+    private CachingFilmRepository filmRepository;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(FilmRepositoryInterface.class);
+        filmRepository = new CachingFilmRepository(delegate, 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void shouldLoadFilmOnceForRepeatedLookups() {
+        when(delegate.getFilmById(1L)).thenReturn(Optional.of(film(1L)));
+
+        filmRepository.getFilmById(1L);
+        filmRepository.getFilmById(1L);
+
+        verify(delegate, times(1)).getFilmById(1L);
+        assertThat(filmRepository.getStats().hitCount()).isEqualTo(1);
+        assertThat(filmRepository.getStats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldInvalidateFilmOnUpdate() {
+        Film film = film(1L);
+        when(delegate.getFilmById(1L)).thenReturn(Optional.of(film));
+        when(delegate.updateFilm(film)).thenReturn(film);
+
+        filmRepository.getFilmById(1L);
+        filmRepository.updateFilm(film);
+        filmRepository.getFilmById(1L);
+
+        verify(delegate, times(2)).getFilmById(1L);
+    }
+
+    @Test
+    void shouldLoadOnlyMissingFilmsInBatch() {
+        when(delegate.getFilmById(1L)).thenReturn(Optional.of(film(1L)));
+        when(delegate.getFilmsByIds(anyList())).thenReturn(List.of(film(2L)));
+
+        filmRepository.getFilmById(1L);
+        List<Film> films = filmRepository.getFilmsByIds(List.of(2L, 1L));
+
+        assertThat(films).extracting(Film::getId).containsExactly(2L, 1L);
+        verify(delegate).getFilmsByIds(List.of(2L));
+    }
+
+    private static Film film(Long id) {
+        return Film.builder().id(id).name("Film " + id).build();
+    }
+}
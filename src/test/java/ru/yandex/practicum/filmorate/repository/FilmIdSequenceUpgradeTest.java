@@ -0,0 +1,57 @@
+package ru.yandex.practicum.filmorate.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.repository.film.FilmRepositoryInterface;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Идентификаторы фильмов в базе, созданной до перехода на последовательность")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:legacy-films;DB_CLOSE_DELAY=-1;MODE=LEGACY",
+        "spring.sql.init.schema-locations=classpath:legacy-films-schema.sql,classpath:schema.sql"
+})
+@ActiveProfiles("test")
+@Transactional
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class FilmIdSequenceUpgradeTest {
+    private final FilmRepositoryInterface filmRepository;
+
+    @Test
+    @DisplayName("Импорт и создание фильма не пересекаются с уже существующими id")
+    void shouldContinueAfterExistingFilms() {
+        List<Film> existing = filmRepository.getAllFilms();
+        long maxExistingId = existing.stream().mapToLong(Film::getId).max().orElseThrow();
+        List<Film> imported = List.of(film("Imported 1"), film("Imported 2"), film("Imported 3"));
+
+        filmRepository.importFilms(imported);
+        Film saved = filmRepository.saveFilm(film("Saved"));
+
+        List<Long> newIds = new ArrayList<>(imported.stream().map(Film::getId).toList());
+        newIds.add(saved.getId());
+        assertThat(existing).hasSize(3);
+        assertThat(newIds).doesNotHaveDuplicates().allMatch(id -> id > maxExistingId);
+        assertThat(filmRepository.getAllFilms()).hasSize(existing.size() + newIds.size());
+    }
+
+    private static Film film(String name) {
+        return Film.builder()
+                .name(name)
+                .description("Description")
+                .releaseDate(LocalDate.of(2020, 1, 1))
+                .duration(100)
+                .mpa(new Mpa(1, "G"))
+                .build();
+    }
+}
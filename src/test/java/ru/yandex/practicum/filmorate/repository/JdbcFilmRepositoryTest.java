@@ -8,19 +8,27 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
 import org.springframework.test.context.ActiveProfiles;
+import ru.yandex.practicum.filmorate.model.BatchItemStatus;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Like;
 import ru.yandex.practicum.filmorate.model.Mpa;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.repository.film.FilmHydration;
 import ru.yandex.practicum.filmorate.repository.film.FilmRepositoryInterface;
 import ru.yandex.practicum.filmorate.repository.film.JdbcFilmRepository;
 import ru.yandex.practicum.filmorate.repository.mappers.FilmRowMapper;
 import ru.yandex.practicum.filmorate.repository.mappers.UserRowMapper;
 import ru.yandex.practicum.filmorate.repository.mpa.JdbcMpaRepository;
+import ru.yandex.practicum.filmorate.repository.reference.ReferenceDataCache;
 import ru.yandex.practicum.filmorate.repository.user.JdbcUserRepository;
 import ru.yandex.practicum.filmorate.repository.user.UserRepositoryInterface;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -42,6 +50,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 class JdbcFilmRepositoryTest {
     private final FilmRepositoryInterface filmRepository;
     private final UserRepositoryInterface userRepository;
+    private final NamedParameterJdbcOperations jdbc;
+    private final ReferenceDataCache referenceData;
     private Long testFilm1Id;
     private Long testFilm2Id;
     private Long testUser1Id;
@@ -134,15 +144,54 @@ class JdbcFilmRepositoryTest {
                 .containsExactlyInAnyOrder(testFilm1Id, testFilm2Id);
     }
 
+    @Test
+    void shouldReturnFilmsPageAfterGivenId() {
+        List<Film> firstPage = filmRepository.getFilmsPage(null, 1);
+        assertThat(firstPage)
+                .extracting(Film::getId)
+                .containsExactly(testFilm1Id);
+
+        List<Film> secondPage = filmRepository.getFilmsPage(testFilm1Id, 10);
+        assertThat(secondPage)
+                .extracting(Film::getId)
+                .containsExactly(testFilm2Id);
+    }
+
+    @Test
+    void shouldStreamFilmsWithGenres() {
+        Film film = filmRepository.getFilmById(testFilm1Id).orElseThrow();
+        film.setGenres(List.of(new Genre(1, null), new Genre(2, null)));
+        filmRepository.updateFilm(film);
+
+        List<Film> streamed = new ArrayList<>();
+        filmRepository.streamAllFilms(streamed::add);
+
+        assertThat(streamed)
+                .extracting(Film::getId)
+                .containsExactly(testFilm1Id, testFilm2Id);
+        assertThat(streamed.getFirst().getGenres())
+                .extracting(Genre::getId)
+                .containsExactly(1, 2);
+    }
+
     @Test
     void shouldAddLikeToFilm() {
         filmRepository.addLike(testUser1Id, testFilm1Id);
 
-        List<Film> popularFilms = filmRepository.getTheMostPopularFilms(1);
-        assertThat(popularFilms)
-                .hasSize(1)
-                .extracting(Film::getId)
-                .containsExactly(testFilm1Id);
+        assertThat(filmRepository.getLikes(testFilm1Id)).containsExactly(testUser1Id);
+    }
+
+    @Test
+    void shouldMaintainMaterializedLikesCount() {
+        filmRepository.addLike(testUser1Id, testFilm2Id);
+
+        assertThat(materializedLikesCount(testFilm2Id)).isEqualTo(1);
+
+        jdbc.update("UPDATE film_stats SET likes_count = 5 WHERE film_id = :id",
+                new MapSqlParameterSource("id", testFilm2Id));
+        filmRepository.rebuildLikeCounters();
+
+        assertThat(materializedLikesCount(testFilm2Id)).isEqualTo(1);
     }
 
     @Test
@@ -154,4 +203,107 @@ class JdbcFilmRepositoryTest {
         List<Long> likesAfter = filmRepository.getLikes(testFilm1Id);
         assertEquals(0, likesAfter.size());
     }
+
+    @Test
+    void shouldAddLikesInBatchReportingDuplicatesAndMissingIds() {
+        filmRepository.addLike(testUser1Id, testFilm1Id);
+
+        List<BatchItemStatus> results = filmRepository.addLikes(List.of(
+                new Like(testFilm1Id, testUser1Id),
+                new Like(testFilm2Id, testUser1Id),
+                new Like(testFilm2Id, testUser1Id),
+                new Like(testFilm2Id, 9999L),
+                new Like(9999L, testUser1Id)));
+
+        assertThat(results).containsExactly(
+                BatchItemStatus.DUPLICATE,
+                BatchItemStatus.ADDED,
+                BatchItemStatus.DUPLICATE,
+                BatchItemStatus.NOT_FOUND,
+                BatchItemStatus.NOT_FOUND);
+        assertThat(filmRepository.getLikes(testFilm2Id)).containsExactly(testUser1Id);
+        assertThat(filmRepository.getLikesCounts()).containsEntry(testFilm2Id, 1);
+    }
+
+    @Test
+    void shouldRemoveLikesInBatchAndAdjustCounters() {
+        filmRepository.addLike(testUser1Id, testFilm1Id);
+        filmRepository.addLike(testUser1Id, testFilm2Id);
+
+        int removed = filmRepository.removeLikes(List.of(
+                new Like(testFilm1Id, testUser1Id),
+                new Like(testFilm1Id, testUser1Id),
+                new Like(9999L, testUser1Id)));
+
+        assertThat(removed).isEqualTo(1);
+        assertThat(filmRepository.getLikes(testFilm1Id)).isEmpty();
+        assertThat(filmRepository.getLikes(testFilm2Id)).containsExactly(testUser1Id);
+        assertThat(filmRepository.getLikesCounts()).containsEntry(testFilm1Id, 0).containsEntry(testFilm2Id, 1);
+    }
+
+    @Test
+    void shouldHydrateFilmsIdenticallyWithJoinAndTwoPhaseStrategies() {
+        filmRepository.importFilms(List.of(
+                Film.builder()
+                        .name("No Genres")
+                        .description("Description")
+                        .releaseDate(LocalDate.of(2001, 1, 1))
+                        .duration(90)
+                        .mpa(new Mpa(2, "PG"))
+                        .build(),
+                Film.builder()
+                        .name("All Genres")
+                        .description("Description")
+                        .releaseDate(LocalDate.of(2002, 1, 1))
+                        .duration(95)
+                        .mpa(new Mpa(3, "PG-13"))
+                        .genres(List.of(new Genre(6, null), new Genre(1, null), new Genre(2, null),
+                                new Genre(3, null), new Genre(4, null), new Genre(5, null)))
+                        .build()));
+        filmRepository.addLike(testUser1Id, testFilm2Id);
+        FilmRepositoryInterface joinRepository = new JdbcFilmRepository(jdbc, referenceData, FilmHydration.JOIN);
+        List<Long> ids = List.of(testFilm2Id, 9999L, testFilm1Id);
+
+        assertThat(filmRepository.getAllFilms()).usingRecursiveComparison()
+                .isEqualTo(joinRepository.getAllFilms());
+        assertThat(filmRepository.getFilmsPage(0L, 3)).usingRecursiveComparison()
+                .isEqualTo(joinRepository.getFilmsPage(0L, 3));
+        assertThat(filmRepository.getFilmsByIds(ids)).usingRecursiveComparison()
+                .isEqualTo(joinRepository.getFilmsByIds(ids));
+        assertThat(filmRepository.getAllFilms().getLast().getGenres()).extracting(Genre::getId)
+                .containsExactly(1, 2, 3, 4, 5, 6);
+    }
+
+    @Test
+    void shouldImportFilmsWithAllocatedIdsAndGenres() {
+        Film imported = Film.builder()
+                .name("Imported Film")
+                .description("Imported")
+                .releaseDate(LocalDate.of(2020, 2, 2))
+                .duration(100)
+                .mpa(new Mpa(2, "PG"))
+                .genres(List.of(new Genre(1, null), new Genre(1, null), new Genre(3, null)))
+                .build();
+
+        filmRepository.importFilms(List.of(imported));
+
+        assertThat(imported.getId()).isGreaterThan(testFilm2Id);
+        Film saved = filmRepository.getFilmById(imported.getId()).orElseThrow();
+        assertThat(saved.getGenres())
+                .extracting(Genre::getId)
+                .containsExactly(1, 3);
+        assertThat(filmRepository.getLikesCounts()).containsEntry(imported.getId(), 0);
+        Film next = filmRepository.saveFilm(Film.builder()
+                .name("After Import")
+                .releaseDate(LocalDate.of(2021, 1, 1))
+                .duration(90)
+                .mpa(new Mpa(1, "G"))
+                .build());
+        assertThat(next.getId()).isGreaterThan(imported.getId());
+    }
+
+    private Integer materializedLikesCount(Long filmId) {
+        return jdbc.queryForObject("SELECT likes_count FROM film_stats WHERE film_id = :id",
+                new MapSqlParameterSource("id", filmId), Integer.class);
+    }
 }
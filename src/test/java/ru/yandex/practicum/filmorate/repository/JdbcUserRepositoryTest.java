@@ -9,12 +9,15 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
+import ru.yandex.practicum.filmorate.model.BatchItemStatus;
+import ru.yandex.practicum.filmorate.model.Friendship;
 import ru.yandex.practicum.filmorate.model.User;
 import ru.yandex.practicum.filmorate.repository.mappers.UserRowMapper;
 import ru.yandex.practicum.filmorate.repository.user.JdbcUserRepository;
 import ru.yandex.practicum.filmorate.repository.user.UserRepositoryInterface;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -90,6 +93,16 @@ class JdbcUserRepositoryTest {
                 .containsExactlyInAnyOrder(user1Id, user2Id);
     }
 
+    @Test
+    void shouldStreamAllUsers() {
+        List<User> streamed = new ArrayList<>();
+        userRepository.streamAllUsers(streamed::add);
+
+        assertThat(streamed)
+                .extracting(User::getId)
+                .containsExactlyInAnyOrder(user1Id, user2Id);
+    }
+
     @Test
     void shouldCreateFriendship() {
         userRepository.addFriend(user1Id, user2Id);
@@ -101,11 +114,47 @@ class JdbcUserRepositoryTest {
                 .containsExactly(user2Id);
     }
 
+    @Test
+    void shouldImportUsersAndFindExistingEmails() {
+        List<BatchItemStatus> results = userRepository.importUsers(List.of(
+                User.builder().email("bulk1@example.com").login("bulk1").name("bulk1").build(),
+                User.builder().email("bulk2@example.com").login("bulk2").name("bulk2")
+                        .birthday(LocalDate.of(2000, 1, 1)).build(),
+                User.builder().email("test1@example.com").login("bulk3").name("bulk3").build()));
+
+        assertThat(results).containsExactly(BatchItemStatus.ADDED, BatchItemStatus.ADDED, BatchItemStatus.DUPLICATE);
+
+        assertThat(userRepository.findExistingEmails(
+                List.of("bulk1@example.com", "bulk2@example.com", "test1@example.com", "missing@example.com")))
+                .containsExactlyInAnyOrder("bulk1@example.com", "bulk2@example.com", "test1@example.com");
+    }
+
+    @Test
+    void shouldAddFriendsInBatchReportingDuplicatesAndMissingIds() {
+        userRepository.addFriend(user1Id, user2Id);
+
+        List<BatchItemStatus> results = userRepository.addFriends(List.of(
+                new Friendship(user1Id, user2Id),
+                new Friendship(user2Id, user1Id),
+                new Friendship(user2Id, user1Id),
+                new Friendship(user2Id, 9999L)));
+
+        assertThat(results).containsExactly(
+                BatchItemStatus.DUPLICATE,
+                BatchItemStatus.ADDED,
+                BatchItemStatus.DUPLICATE,
+                BatchItemStatus.NOT_FOUND);
+        assertThat(userRepository.getFriendsList(user2Id))
+                .extracting(User::getId)
+                .containsExactly(user1Id);
+    }
+
     @Test
     void shouldDeleteFriendship() {
         userRepository.addFriend(user1Id, user2Id);
-        userRepository.deleteFriend(user1Id, user2Id);
 
+        assertThat(userRepository.deleteFriend(user1Id, user2Id)).isEqualTo(1);
+        assertThat(userRepository.deleteFriend(user1Id, user2Id)).isZero();
         List<User> friends = userRepository.getFriendsList(user1Id);
         assertThat(friends).isEmpty();
     }
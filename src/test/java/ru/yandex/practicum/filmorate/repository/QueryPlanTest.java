@@ -0,0 +1,115 @@
+package ru.yandex.practicum.filmorate.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.namedparam.AbstractSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
+import org.springframework.test.context.ActiveProfiles;
+import ru.yandex.practicum.filmorate.repository.film.JdbcFilmRepository;
+import ru.yandex.practicum.filmorate.repository.genre.JdbcGenreRepository;
+import ru.yandex.practicum.filmorate.repository.user.JdbcUserRepository;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@ActiveProfiles("test")
+class QueryPlanTest {
+    private static final List<Class<?>> REPOSITORIES = List.of(
+            JdbcFilmRepository.class, JdbcUserRepository.class, JdbcGenreRepository.class);
+    private static final Set<String> FULL_SCAN_ALLOWED = Set.of(
+            "JdbcFilmRepository.GET_ALL_FILMS",
+            "JdbcFilmRepository.GET_ALL_FILM_ROWS",
+            "JdbcFilmRepository.GET_ALL_FILM_GENRES",
+            "JdbcFilmRepository.GET_ALL_LIKES",
+            "JdbcFilmRepository.REBUILD_LIKES_COUNTS",
+            "JdbcUserRepository.GET_ALL_USERS",
+            "JdbcUserRepository.GET_ALL_EMAILS",
+            "JdbcUserRepository.GET_ALL_FRIENDSHIPS",
+            "JdbcGenreRepository.GET_ALL_SQL");
+    private static final Set<String> SQL_PREFIXES = Set.of("SELECT", "INSERT", "UPDATE", "DELETE", "MERGE");
+
+    private final NamedParameterJdbcOperations jdbc;
+
+    @Test
+    @DisplayName("Запросы репозиториев не переходят на полный просмотр таблиц")
+    void shouldNotScanWholeTables() throws IllegalAccessException {
+        Map<String, String> statements = collectStatements();
+        assertThat(statements.keySet()).containsAll(FULL_SCAN_ALLOWED);
+
+        List<String> fullScans = new ArrayList<>();
+        for (Map.Entry<String, String> statement : statements.entrySet()) {
+            if (FULL_SCAN_ALLOWED.contains(statement.getKey())) {
+                continue;
+            }
+            String plan = String.join("\n", jdbc.query("EXPLAIN " + statement.getValue(),
+                    new PlaceholderParameters(), (rs, rowNum) -> rs.getString(1)));
+            if (plan.contains(".tableScan")) {
+                fullScans.add(statement.getKey() + ":\n" + plan);
+            }
+        }
+
+        assertThat(fullScans).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Счётчики лайков читаются по индексу популярности в порядке рейтинга")
+    void shouldReadLikesCountsThroughPopularityIndex() throws IllegalAccessException {
+        String plan = String.join("\n", jdbc.query("EXPLAIN " + collectStatements()
+                        .get("JdbcFilmRepository.GET_LIKES_COUNTS"),
+                new PlaceholderParameters(), (rs, rowNum) -> rs.getString(1)));
+
+        assertThat(plan).contains("IDX_FILM_STATS_POPULARITY").contains("index sorted");
+    }
+
+    private static Map<String, String> collectStatements() throws IllegalAccessException {
+        Map<String, String> statements = new LinkedHashMap<>();
+        for (Class<?> repository : REPOSITORIES) {
+            for (Field field : repository.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) || field.getType() != String.class) {
+                    continue;
+                }
+                field.setAccessible(true);
+                String sql = ((String) field.get(null)).strip();
+                String keyword = sql.split("\\s+", 2)[0].toUpperCase(Locale.ROOT);
+                if (SQL_PREFIXES.contains(keyword)) {
+                    statements.put(repository.getSimpleName() + "." + field.getName(), sql);
+                }
+            }
+        }
+        return statements;
+    }
+
+    private static class PlaceholderParameters extends AbstractSqlParameterSource {
+        @Override
+        public boolean hasValue(String paramName) {
+            return true;
+        }
+
+        @Override
+        public Object getValue(String paramName) {
+            return switch (paramName) {
+                case "ids", "filmIds", "userIds", "friendIds" -> List.of(1L, 2L);
+                case "emails" -> List.of("a@mail.ru", "b@mail.ru");
+                case "email", "login", "name", "description" -> "value";
+                case "releaseDate", "birthday" -> LocalDate.of(2000, 1, 1);
+                default -> 1L;
+            };
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package ru.yandex.practicum.filmorate.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.yandex.practicum.filmorate.dto.ImportResultDto;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.repository.film.FilmRepositoryInterface;
+import ru.yandex.practicum.filmorate.service.film.FilmImportService;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Импорт фильмов из NDJSON")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:film-import;DB_CLOSE_DELAY=-1;MODE=LEGACY",
+        "filmorate.film-import.chunk-size=2"
+})
+@ActiveProfiles("test")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class FilmImportServiceTest {
+    private final FilmImportService importService;
+    private final FilmRepositoryInterface filmRepository;
+
+    @Test
+    @DisplayName("Строка без рейтинга отклоняется, остальные строки импортируются")
+    void rejectsRowWithoutMpa() {
+        String ndjson = """
+                {"name":"First","releaseDate":"2000-01-01","duration":100,"mpa":{"id":1}}
+                {"name":"Without mpa","releaseDate":"2000-01-01","duration":100}
+                {"name":"Second","releaseDate":"2000-01-01","duration":100,"mpa":{"id":2}}
+                """;
+
+        ImportResultDto result = importService.importFilms(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(result.getAccepted()).isEqualTo(2);
+        assertThat(result.getRejected()).isEqualTo(1);
+        assertThat(filmRepository.getAllFilms()).extracting(Film::getName).containsExactly("First", "Second");
+    }
+}
@@ -0,0 +1,51 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.repository.film.FilmRepositoryInterface;
+import ru.yandex.practicum.filmorate.service.film.FilmPopularityIndex;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Индекс популярности фильмов")
+class FilmPopularityIndexTest {
+    private FilmPopularityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        FilmRepositoryInterface filmRepository = mock(FilmRepositoryInterface.class);
+        when(filmRepository.getLikesCounts()).thenReturn(Map.of(1L, 2, 2L, 0, 3L, 2, 4L, 5));
+        index = new FilmPopularityIndex(filmRepository);
+        index.rebuild();
+    }
+
+    @Test
+    @DisplayName("Фильмы упорядочены по убыванию лайков, при равенстве — по возрастанию id")
+    void topOrdersByLikesThenById() {
+        assertThat(index.top(10)).containsExactly(4L, 1L, 3L, 2L);
+    }
+
+    @Test
+    @DisplayName("Изменение лайков сразу меняет порядок")
+    void likesShiftRanking() {
+        index.likeAdded(2L);
+        index.likeAdded(2L);
+        index.likeAdded(2L);
+        index.likeRemoved(4L);
+        index.filmAdded(5L);
+
+        assertThat(index.top(3)).containsExactly(4L, 2L, 1L);
+        assertThat(index.top(10)).containsExactly(4L, 2L, 1L, 3L, 5L);
+    }
+
+    @Test
+    @DisplayName("Запрос большего числа фильмов, чем есть в индексе, возвращает все фильмы")
+    void topWithHugeCountReturnsAllFilms() {
+        assertThat(index.top(Integer.MAX_VALUE)).containsExactly(4L, 1L, 3L, 2L);
+    }
+}
@@ -0,0 +1,84 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.repository.film.FilmRepositoryInterface;
+import ru.yandex.practicum.filmorate.service.recommendation.FilmSimilarityIndex;
+import ru.yandex.practicum.filmorate.service.recommendation.LikeMatrix;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("Индекс похожих фильмов")
+class FilmSimilarityIndexTest {
+    private LikeMatrix likeMatrix;
+    private FilmSimilarityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        FilmRepositoryInterface filmRepository = mock(FilmRepositoryInterface.class);
+        List<Film> films = List.of(film(1L, 1), film(2L, 1), film(3L, 2), film(4L, 3));
+        List<Like> likes = new ArrayList<>();
+        for (long userId = 1; userId <= 20; userId++) {
+            likes.add(new Like(1L, userId));
+            likes.add(new Like(2L, userId));
+            likes.add(new Like(3L, userId + 100));
+        }
+        doAnswer(invocation -> {
+            Consumer<Film> consumer = invocation.getArgument(0);
+            films.forEach(consumer);
+            return null;
+        }).when(filmRepository).streamAllFilms(any());
+        doAnswer(invocation -> {
+            Consumer<Like> consumer = invocation.getArgument(0);
+            likes.forEach(consumer);
+            return null;
+        }).when(filmRepository).streamAllLikes(any());
+
+        likeMatrix = new LikeMatrix(filmRepository);
+        likeMatrix.load();
+        index = new FilmSimilarityIndex(filmRepository, likeMatrix, 16, 4, 1000);
+        index.load();
+    }
+
+    @Test
+    @DisplayName("Фильмы с одинаковыми лайками и жанрами попадают в одну корзину")
+    void findsFilmsWithSameLikersAndGenres() {
+        assertThat(index.similar(1L, 10)).containsExactly(2L);
+        assertThat(index.similar(4L, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Корзины обновляются при изменении лайков")
+    void bucketsFollowLikeChanges() {
+        for (long userId = 101; userId <= 120; userId++) {
+            likeMatrix.likeAdded(4L, userId);
+            index.likeAdded(4L, userId);
+        }
+        index.filmChanged(4L, List.of(new Genre(2, null)));
+        assertThat(index.similar(3L, 10)).containsExactly(4L);
+
+        for (long userId = 101; userId <= 120; userId++) {
+            likeMatrix.likeRemoved(4L, userId);
+            index.likeRemoved(4L, userId);
+        }
+        assertThat(index.similar(3L, 10)).isEmpty();
+    }
+
+    private static Film film(long id, int genreId) {
+        return Film.builder()
+                .id(id)
+                .genres(List.of(new Genre(genreId, null)))
+                .build();
+    }
+}
@@ -0,0 +1,98 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.Friendship;
+import ru.yandex.practicum.filmorate.repository.user.UserRepositoryInterface;
+import ru.yandex.practicum.filmorate.service.user.FriendGraph;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("Граф дружбы")
+class FriendGraphTest {
+    private FriendGraph graph;
+
+    @BeforeEach
+    void setUp() {
+        UserRepositoryInterface userRepository = mock(UserRepositoryInterface.class);
+        List<Friendship> friendships = List.of(
+                new Friendship(1L, 3L), new Friendship(1L, 4L), new Friendship(1L, 5L),
+                new Friendship(2L, 5L), new Friendship(2L, 3L), new Friendship(3L, 1L));
+        doAnswer(invocation -> {
+            Consumer<Friendship> consumer = invocation.getArgument(0);
+            friendships.forEach(consumer);
+            return null;
+        }).when(userRepository).streamAllFriendships(any());
+        graph = new FriendGraph(userRepository, 1000, 6, 1000);
+        graph.load();
+    }
+
+    @Test
+    @DisplayName("Список друзей строится из исходящих связей")
+    void friendsOfFollowsDirection() {
+        assertThat(graph.friendsOf(1L)).containsExactly(3L, 4L, 5L);
+        assertThat(graph.friendsOf(5L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Общие друзья — пересечение списков, отсортированное по id")
+    void commonFriendsIntersects() {
+        assertThat(graph.commonFriends(1L, 2L)).containsExactly(3L, 5L);
+        assertThat(graph.commonFriends(2L, 1L)).containsExactly(3L, 5L);
+        assertThat(graph.commonFriends(1L, 42L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Добавление и удаление дружбы сразу видны в графе")
+    void mutationsAreApplied() {
+        graph.friendshipAdded(2L, 4L);
+        graph.friendshipRemoved(1L, 5L);
+
+        assertThat(graph.commonFriends(1L, 2L)).containsExactly(3L, 4L);
+    }
+
+    @Test
+    @DisplayName("Рекомендации ранжируются по числу общих друзей и не включают текущих друзей")
+    void suggestionsRankByMutualFriends() {
+        graph.friendshipAdded(3L, 6L);
+        graph.friendshipAdded(4L, 6L);
+        graph.friendshipAdded(4L, 2L);
+        graph.friendshipAdded(5L, 7L);
+
+        assertThat(graph.suggestFriends(1L, 10)).containsExactly(6L, 2L, 7L);
+        assertThat(graph.suggestFriends(1L, 1)).containsExactly(6L);
+        assertThat(graph.suggestFriends(42L, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Кратчайшая цепочка учитывает направление дружбы")
+    void shortestPathFollowsDirectedEdges() {
+        graph.friendshipAdded(5L, 6L);
+        graph.friendshipAdded(6L, 7L);
+        graph.friendshipAdded(4L, 7L);
+
+        assertThat(graph.shortestPath(1L, 7L)).containsExactly(1L, 4L, 7L);
+        assertThat(graph.shortestPath(2L, 6L)).containsExactly(2L, 5L, 6L);
+        assertThat(graph.shortestPath(3L, 3L)).containsExactly(3L);
+        assertThat(graph.shortestPath(7L, 1L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Поиск цепочки ограничен глубиной")
+    void shortestPathRespectsDepthLimit() {
+        graph = new FriendGraph(mock(UserRepositoryInterface.class), 1000, 2, 1000);
+        graph.friendshipAdded(1L, 2L);
+        graph.friendshipAdded(2L, 3L);
+        graph.friendshipAdded(3L, 4L);
+
+        assertThat(graph.shortestPath(1L, 3L)).containsExactly(1L, 2L, 3L);
+        assertThat(graph.shortestPath(1L, 4L)).isEmpty();
+    }
+}
@@ -0,0 +1,123 @@
+package ru.yandex.practicum.filmorate.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.yandex.practicum.filmorate.exception.DuplicatedDataException;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.repository.film.FilmRepositoryInterface;
+import ru.yandex.practicum.filmorate.repository.user.UserRepositoryInterface;
+import ru.yandex.practicum.filmorate.service.film.FilmService;
+import ru.yandex.practicum.filmorate.service.user.UserService;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Количество SQL-запросов при изменении лайков и друзей")
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class MutationStatementCountTest {
+    @SpyBean
+    private NamedParameterJdbcOperations jdbc;
+    private final FilmService filmService;
+    private final UserService userService;
+    private final FilmRepositoryInterface filmRepository;
+    private final UserRepositoryInterface userRepository;
+    private Long filmId;
+    private Long userId;
+    private Long friendId;
+
+    @BeforeEach
+    void setUp() {
+        filmId = filmRepository.saveFilm(Film.builder()
+                .name("Film")
+                .description("Description")
+                .releaseDate(LocalDate.of(2000, 1, 1))
+                .duration(100)
+                .mpa(new Mpa(1, "G"))
+                .build()).getId();
+        userId = userRepository.saveUser(user("first@example.com")).getId();
+        friendId = userRepository.saveUser(user("second@example.com")).getId();
+        Mockito.clearInvocations(jdbc);
+    }
+
+    @Test
+    @DisplayName("Лайк — одна вставка и обновление счётчика, без предварительных SELECT")
+    void addLikeIssuesOnlyWrites() {
+        filmService.addLike(userId, filmId);
+
+        assertEquals(2, statementCount());
+    }
+
+    @Test
+    @DisplayName("Удаление лайка — удаление и обновление счётчика")
+    void removeLikeIssuesOnlyWrites() {
+        filmService.addLike(userId, filmId);
+        Mockito.clearInvocations(jdbc);
+
+        filmService.removeLike(userId, filmId);
+
+        assertEquals(2, statementCount());
+    }
+
+    @Test
+    @DisplayName("Добавление и удаление друга — один запрос")
+    void friendMutationsIssueSingleStatement() {
+        userService.addFriend(userId, friendId);
+        assertEquals(1, statementCount());
+
+        Mockito.clearInvocations(jdbc);
+        userService.deleteFriend(userId, friendId);
+        assertEquals(1, statementCount());
+    }
+
+    @Test
+    @DisplayName("Ошибки сохраняют прежний HTTP-контракт")
+    void violationsAreTranslatedToExistingExceptions() {
+        NotFoundException missingUser = assertThrows(NotFoundException.class,
+                () -> filmService.addLike(-1L, filmId));
+        assertThat(missingUser.getMessage()).isEqualTo("Пользователь с id = -1 не найден");
+
+        NotFoundException missingFilm = assertThrows(NotFoundException.class,
+                () -> filmService.addLike(userId, -1L));
+        assertThat(missingFilm.getMessage()).isEqualTo("Фильм с id = -1 не найден");
+
+        filmService.addLike(userId, filmId);
+        assertThrows(DuplicatedDataException.class, () -> filmService.addLike(userId, filmId));
+
+        assertThrows(NotFoundException.class, () -> userService.addFriend(userId, -1L));
+        assertThrows(NotFoundException.class, () -> userService.deleteFriend(-1L, friendId));
+    }
+
+    private int statementCount() {
+        return (int) Mockito.mockingDetails(jdbc).getInvocations().stream()
+                .filter(invocation -> !invocation.getMethod().getName().equals("getJdbcOperations"))
+                .filter(invocation -> invocation.getLocation().toString().contains("filmorate.repository"))
+                .count();
+    }
+
+    private static User user(String email) {
+        return User.builder()
+                .email(email)
+                .login(email.substring(0, email.indexOf('@')))
+                .name("Name")
+                .birthday(LocalDate.of(1990, 1, 1))
+                .build();
+    }
+}
@@ -0,0 +1,79 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import ru.yandex.practicum.filmorate.mapper.FilmMapper;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.repository.film.FilmRepositoryInterface;
+import ru.yandex.practicum.filmorate.repository.user.UserRepositoryInterface;
+import ru.yandex.practicum.filmorate.service.recommendation.FilmSimilarityIndex;
+import ru.yandex.practicum.filmorate.service.recommendation.LikeMatrix;
+import ru.yandex.practicum.filmorate.service.recommendation.RecommendationService;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Рекомендации фильмов")
+class RecommendationServiceTest {
+    private FilmRepositoryInterface filmRepository;
+    private LikeMatrix likeMatrix;
+    private RecommendationService recommendations;
+
+    @BeforeEach
+    void setUp() {
+        filmRepository = mock(FilmRepositoryInterface.class);
+        UserRepositoryInterface userRepository = mock(UserRepositoryInterface.class);
+        when(userRepository.getUserById(anyLong())).thenReturn(Optional.of(new User()));
+        List<Like> likes = List.of(
+                new Like(1L, 1L), new Like(2L, 1L),
+                new Like(1L, 2L), new Like(2L, 2L), new Like(3L, 2L), new Like(4L, 2L),
+                new Like(2L, 3L), new Like(5L, 3L),
+                new Like(6L, 4L));
+        doAnswer(invocation -> {
+            Consumer<Like> consumer = invocation.getArgument(0);
+            likes.forEach(consumer);
+            return null;
+        }).when(filmRepository).streamAllLikes(any());
+        likeMatrix = new LikeMatrix(filmRepository);
+        likeMatrix.load();
+        recommendations = new RecommendationService(likeMatrix, mock(FilmSimilarityIndex.class),
+                filmRepository, userRepository, mock(FilmMapper.class), 2, 1);
+    }
+
+    @Test
+    @DisplayName("Фильмы ранжируются по пересечению лайков с похожими пользователями")
+    void recommendsFilmsOfOverlappingUsers() {
+        assertThat(recommendedIds(1L, 10)).containsExactly(3L, 4L, 5L);
+    }
+
+    @Test
+    @DisplayName("Новые лайки учитываются без полной перестройки")
+    void picksUpLikesIncrementally() {
+        likeMatrix.likeAdded(5L, 4L);
+        likeMatrix.likeAdded(1L, 4L);
+        likeMatrix.likeAdded(2L, 4L);
+        likeMatrix.likeRemoved(4L, 2L);
+
+        assertThat(recommendedIds(1L, 2)).containsExactly(3L, 5L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> recommendedIds(long userId, int limit) {
+        ArgumentCaptor<List<Long>> ids = ArgumentCaptor.forClass(List.class);
+        recommendations.getRecommendations(userId, limit);
+        verify(filmRepository).getFilmsByIds(ids.capture());
+        return ids.getValue();
+    }
+}
@@ -8,12 +8,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
 import ru.yandex.practicum.filmorate.exception.ConditionsNotMetException;
+import ru.yandex.practicum.filmorate.exception.DuplicatedDataException;
 import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.model.Mpa;
 import ru.yandex.practicum.filmorate.model.User;
 import ru.yandex.practicum.filmorate.repository.film.JdbcFilmRepository;
 import ru.yandex.practicum.filmorate.repository.user.JdbcUserRepository;
+import ru.yandex.practicum.filmorate.service.user.UserService;
 import ru.yandex.practicum.filmorate.service.validation.ValidationService;
 
 import java.time.LocalDate;
@@ -29,6 +32,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 @ActiveProfiles("test")
 public class ValidationServiceImplTest {
     private final ValidationService validationService;
+    private final UserService userService;
     private User user;
     private Film film;
 
@@ -56,6 +60,18 @@ public class ValidationServiceImplTest {
         assertThrows(ConditionsNotMetException.class, () -> validationService.validateCreate(user));
     }
 
+    @Test
+    @Transactional
+    @DisplayName("Создание пользователя с уже занятым email выбрасывает исключение")
+    void createUserWithUsedEmailThrowsException() {
+        validationService.validateCreate(user);
+        userService.saveUser(user);
+
+        User another = new User(null, "valid@email.com", "anotherLogin", "another",
+                LocalDate.of(2001, 1, 1));
+        assertThrows(DuplicatedDataException.class, () -> validationService.validateCreate(another));
+    }
+
     @Test
     @DisplayName("Создание пользователя с пустым логином выбрасывает исключение")
     void createUserWithBlankedLoginThrowsException() {
@@ -0,0 +1,167 @@
+package ru.yandex.practicum.filmorate.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.stubbing.Answer;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.yandex.practicum.filmorate.exception.DuplicatedDataException;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.model.BatchItemStatus;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.repository.film.FilmRepositoryInterface;
+import ru.yandex.practicum.filmorate.repository.user.UserRepositoryInterface;
+import ru.yandex.practicum.filmorate.service.film.WriteBehindLikeWriter;
+import ru.yandex.practicum.filmorate.service.recommendation.LikeMatrix;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Отложенная запись лайков")
+class WriteBehindLikeWriterTest {
+    private FilmRepositoryInterface filmRepository;
+    private UserRepositoryInterface userRepository;
+    private LikeMatrix likeMatrix;
+    private WriteBehindLikeWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        filmRepository = mock(FilmRepositoryInterface.class);
+        userRepository = mock(UserRepositoryInterface.class);
+        when(filmRepository.findExistingFilmIds(anyCollection())).thenAnswer(existing(Set.of(10L, 20L)));
+        when(userRepository.findExistingUserIds(anyCollection())).thenAnswer(existing(Set.of(1L, 2L)));
+        likeMatrix = new LikeMatrix(filmRepository);
+        writer = new WriteBehindLikeWriter(filmRepository, userRepository, likeMatrix,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), new SimpleMeterRegistry(),
+                100, 3, Duration.ofSeconds(1), Duration.ofSeconds(1), 2, Duration.ofMillis(10));
+        writer.start();
+    }
+
+    @Test
+    @DisplayName("Лайк и снятие лайка в одной пачке взаимно уничтожаются")
+    void cancelsLikeUnlikePairs() {
+        like(1L, 10L);
+        unlike(1L, 10L);
+        like(1L, 20L);
+        writer.stop();
+
+        ArgumentCaptor<List<Like>> added = ArgumentCaptor.captor();
+        verify(filmRepository).addLikes(added.capture());
+        assertThat(added.getValue()).singleElement()
+                .satisfies(like -> assertThat(like.getFilmId()).isEqualTo(20L));
+        verify(filmRepository, never()).removeLikes(anyList());
+    }
+
+    @Test
+    @DisplayName("При остановке очередь дописывается в базу")
+    void flushesQueueOnStop() {
+        like(1L, 10L);
+        writer.stop();
+
+        ArgumentCaptor<List<Like>> added = ArgumentCaptor.captor();
+        verify(filmRepository).addLikes(added.capture());
+        assertThat(added.getValue()).singleElement()
+                .satisfies(like -> assertThat(like.getUserId()).isEqualTo(1L));
+        assertThat(writer.isRunning()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Повторный лайк и лайк несуществующего пользователя отклоняются сразу")
+    void rejectsInvalidCommandsBeforeEnqueueing() {
+        like(1L, 10L);
+
+        assertThrows(DuplicatedDataException.class, () -> like(1L, 10L));
+        assertThrows(NotFoundException.class, () -> like(99L, 10L));
+        assertThrows(NotFoundException.class, () -> unlike(1L, 20L));
+        writer.stop();
+    }
+
+    @Test
+    @DisplayName("Неудачная запись повторяется и не теряет лайк")
+    void retriesFailedFlush() {
+        when(filmRepository.addLikes(anyList()))
+                .thenThrow(new TransientDataAccessResourceException("База недоступна"))
+                .thenReturn(List.of(BatchItemStatus.ADDED));
+
+        like(1L, 10L);
+        writer.stop();
+
+        verify(filmRepository, times(2)).addLikes(anyList());
+        assertThat(likeMatrix.contains(10L, 1L)).isTrue();
+    }
+
+    @Test
+    @DisplayName("После исчерпания повторов лайк откатывается в памяти")
+    void revertsInMemoryStateWhenGivingUp() {
+        when(filmRepository.addLikes(anyList()))
+                .thenThrow(new TransientDataAccessResourceException("База недоступна"));
+
+        like(1L, 10L);
+        writer.stop();
+
+        verify(filmRepository, times(3)).addLikes(anyList());
+        assertThat(likeMatrix.contains(10L, 1L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Пачка лайков проходит через ту же очередь и видит ещё не записанные лайки")
+    void routesBatchLikesThroughQueue() {
+        like(1L, 10L);
+
+        List<BatchItemStatus> results = writer.addLikes(List.of(
+                new Like(10L, 1L), new Like(10L, 2L), new Like(10L, 2L), new Like(30L, 1L)), likeMatrix);
+        writer.stop();
+
+        assertThat(results).containsExactly(BatchItemStatus.DUPLICATE, BatchItemStatus.ADDED,
+                BatchItemStatus.DUPLICATE, BatchItemStatus.NOT_FOUND);
+        ArgumentCaptor<List<Like>> added = ArgumentCaptor.captor();
+        verify(filmRepository).addLikes(added.capture());
+        assertThat(added.getValue()).extracting(Like::getUserId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Существование пользователя и фильма проверяется в базе только один раз")
+    void remembersConfirmedParticipants() {
+        like(1L, 10L);
+        unlike(1L, 10L);
+        like(1L, 10L);
+        writer.addLikes(List.of(new Like(10L, 2L)), likeMatrix);
+        writer.stop();
+
+        verify(userRepository).findExistingUserIds(Set.of(1L));
+        verify(userRepository).findExistingUserIds(Set.of(2L));
+        verify(filmRepository, times(1)).findExistingFilmIds(anyCollection());
+    }
+
+    private static Answer<Set<Long>> existing(Set<Long> ids) {
+        return invocation -> {
+            Collection<Long> requested = invocation.getArgument(0);
+            return requested.stream().filter(ids::contains).collect(Collectors.toSet());
+        };
+    }
+
+    private void like(long userId, long filmId) {
+        writer.addLike(userId, filmId, likeMatrix);
+    }
+
+    private void unlike(long userId, long filmId) {
+        writer.removeLike(userId, filmId, likeMatrix);
+    }
+}
@@ -0,0 +1,22 @@
+CREATE TABLE IF NOT EXISTS mpa (
+    mpa_id INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(20) NOT NULL UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS films (
+    film_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    description VARCHAR(200),
+    release_date DATE NOT NULL,
+    duration INT NOT NULL,
+    mpa_id INT,
+    CONSTRAINT positive_duration CHECK (duration > 0),
+    CONSTRAINT fk_film_mpa FOREIGN KEY (mpa_id) REFERENCES mpa(mpa_id)
+);
+
+MERGE INTO mpa (mpa_id, name) VALUES (1, 'G');
+
+INSERT INTO films (name, description, release_date, duration, mpa_id)
+VALUES ('Legacy 1', 'Description', DATE '2000-01-01', 100, 1),
+       ('Legacy 2', 'Description', DATE '2001-01-01', 100, 1),
+       ('Legacy 3', 'Description', DATE '2002-01-01', 100, 1);